@@ -0,0 +1,33 @@
+package com.beer.stock.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import com.beer.stock.reactive.mapper.BeerMapper;
+
+/**
+ * Reactive variant of the Beer Stock API, an unsupported prototype kept to
+ * compare connections and memory per request against the servlet application.
+ *
+ * <p>It is not part of the main build: the root project is the servlet
+ * application itself, not an aggregator, so this module is built and tested
+ * on its own ({@code mvn test} in this directory). It serves the
+ * {@code /api/v1/beers} create, find, list, delete and increment operations
+ * with the same problem+json errors, but none of the servlet application's
+ * caching, search, tenancy, replicas or write durability. Its tests mirror the
+ * servlet cases rather than share them, and must be kept in step by hand.
+ */
+@SpringBootApplication
+public class BeerstockReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(BeerstockReactiveApplication.class, args);
+	}
+
+	@Bean
+	public BeerMapper beerMapper() {
+		return BeerMapper.INSTANCE;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.beer.stock.reactive.controller;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.beer.stock.reactive.dto.BeerDTO;
+import com.beer.stock.reactive.dto.QuantityDTO;
+import com.beer.stock.reactive.service.BeerService;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/beers")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerController {
+
+    private BeerService beerService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.createBeer(beerDTO);
+    }
+
+    @GetMapping("/{name}")
+    public Mono<BeerDTO> findByName(@PathVariable String name) {
+        return beerService.findByName(name);
+    }
+
+    // application/x-ndjson streams rows as they arrive, paced by the client's demand
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<BeerDTO> listBeers() {
+        return beerService.listAll();
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return beerService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.increment(id, quantityDTO.getQuantity());
+    }
+}
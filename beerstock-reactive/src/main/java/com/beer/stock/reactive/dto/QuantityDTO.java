@@ -0,0 +1,20 @@
+package com.beer.stock.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuantityDTO {
+
+    @NotNull
+    @Max(100)
+    private Integer quantity;
+}
@@ -0,0 +1,31 @@
+package com.beer.stock.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.beer.stock.reactive.enums.BeerType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Table("beer")
+@NoArgsConstructor
+@AllArgsConstructor
+public class Beer {
+
+	@Id
+	private Long id;
+
+	private String name;
+
+	private String brand;
+
+	private int max;
+
+	private int quantity;
+
+	private BeerType type;
+
+}
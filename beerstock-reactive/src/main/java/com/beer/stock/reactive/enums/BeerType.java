@@ -0,0 +1,19 @@
+package com.beer.stock.reactive.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerType {
+
+	LAGER("Lager"),
+	MALZBIER("Malzbier"),
+	WITBIER("Witbier"),
+	WEISS("Weiss"),
+	ALE("Ale"),
+	IPA("IPA"),
+	STOUT("Stout");
+	
+	private final String description;
+}
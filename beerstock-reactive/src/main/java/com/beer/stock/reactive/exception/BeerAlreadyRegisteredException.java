@@ -0,0 +1,27 @@
+package com.beer.stock.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BeerAlreadyRegisteredException extends BeerStockException {
+
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public BeerAlreadyRegisteredException(String beerName) {
+        super(String.format("Beer with name %s already registered in the system.", beerName));
+    }
+
+	@Override
+	public String getErrorCode() {
+		return "BEER_ALREADY_REGISTERED";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.BAD_REQUEST;
+	}
+}
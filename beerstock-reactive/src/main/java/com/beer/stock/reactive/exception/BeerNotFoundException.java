@@ -0,0 +1,31 @@
+package com.beer.stock.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class BeerNotFoundException extends BeerStockException {
+
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public BeerNotFoundException(String beerName) {
+        super(String.format("Beer with name %s not found in the system.", beerName));
+    }
+
+    public BeerNotFoundException(Long id) {
+        super(String.format("Beer with id %s not found in the system.", id));
+    }
+
+	@Override
+	public String getErrorCode() {
+		return "BEER_NOT_FOUND";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.NOT_FOUND;
+	}
+}
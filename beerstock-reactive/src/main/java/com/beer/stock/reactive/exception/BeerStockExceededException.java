@@ -0,0 +1,27 @@
+package com.beer.stock.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BeerStockExceededException extends BeerStockException {
+
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public BeerStockExceededException(Long id, int quantityToIncrement) {
+        super(String.format("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement));
+    }
+
+	@Override
+	public String getErrorCode() {
+		return "BEER_STOCK_EXCEEDED";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.BAD_REQUEST;
+	}
+}
@@ -0,0 +1,21 @@
+package com.beer.stock.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the expected-failure exceptions, carrying the same error codes as
+ * the servlet application so both variants answer with identical problems.
+ * They carry no stack trace, since they are raised on routine traffic.
+ */
+public abstract class BeerStockException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	protected BeerStockException(String message) {
+		super(message, null, false, false);
+	}
+
+	public abstract String getErrorCode();
+
+	public abstract HttpStatus getStatus();
+}
@@ -0,0 +1,55 @@
+package com.beer.stock.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.beer.stock.reactive.dto.ProblemDTO;
+
+/**
+ * Turns domain and validation failures into the same
+ * {@code application/problem+json} bodies as the servlet application:
+ * identical {@code type}, {@code code} and status for every failure.
+ */
+@RestControllerAdvice
+public class BeerStockExceptionHandler {
+
+    private static final String PROBLEM_TYPE_PREFIX = "/problems/";
+    private static final String VALIDATION_FAILED = "VALIDATION_FAILED";
+
+    @ExceptionHandler(BeerStockException.class)
+    public ResponseEntity<ProblemDTO> handleBeerStockException(BeerStockException exception,
+            ServerWebExchange exchange) {
+        return problem(exception.getStatus(), exception.getErrorCode(), exception.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ProblemDTO> handleValidationException(WebExchangeBindException exception,
+            ServerWebExchange exchange) {
+        FieldError fieldError = exception.getFieldError();
+        String detail = fieldError != null
+                ? fieldError.getField() + " " + fieldError.getDefaultMessage()
+                : exception.getAllErrors().get(0).getDefaultMessage();
+        return problem(HttpStatus.BAD_REQUEST, VALIDATION_FAILED, detail, exchange);
+    }
+
+    private ResponseEntity<ProblemDTO> problem(HttpStatus status, String code, String detail,
+            ServerWebExchange exchange) {
+        ProblemDTO problem = ProblemDTO.builder()
+                .type(PROBLEM_TYPE_PREFIX + code.toLowerCase().replace('_', '-'))
+                .title(status.getReasonPhrase())
+                .status(status.value())
+                .detail(detail)
+                .instance(exchange.getRequest().getPath().value())
+                .code(code)
+                .build();
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem);
+    }
+}
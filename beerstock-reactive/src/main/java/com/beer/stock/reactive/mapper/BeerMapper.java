@@ -0,0 +1,18 @@
+package com.beer.stock.reactive.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+import com.beer.stock.reactive.dto.BeerDTO;
+import com.beer.stock.reactive.entity.Beer;
+
+@Mapper
+public interface BeerMapper {
+
+    BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
+
+    Beer toModel(BeerDTO beerDTO);
+
+    BeerDTO toDTO(Beer beer);
+}
+
@@ -0,0 +1,15 @@
+package com.beer.stock.reactive.repository;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import com.beer.stock.reactive.entity.Beer;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface BeerRepository extends ReactiveCrudRepository<Beer, Long> {
+
+	Mono<Beer> findByName(String name);
+
+}
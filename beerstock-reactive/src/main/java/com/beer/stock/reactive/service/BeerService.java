@@ -0,0 +1,69 @@
+package com.beer.stock.reactive.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.beer.stock.reactive.dto.BeerDTO;
+import com.beer.stock.reactive.entity.Beer;
+import com.beer.stock.reactive.exception.BeerAlreadyRegisteredException;
+import com.beer.stock.reactive.exception.BeerNotFoundException;
+import com.beer.stock.reactive.exception.BeerStockExceededException;
+import com.beer.stock.reactive.mapper.BeerMapper;
+import com.beer.stock.reactive.repository.BeerRepository;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerService {
+
+    private BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+
+    //POST
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        return beerRepository.findByName(beerDTO.getName())
+                .flatMap(savedBeer -> Mono.<Beer>error(new BeerAlreadyRegisteredException(beerDTO.getName())))
+                .switchIfEmpty(Mono.defer(() -> beerRepository.save(beerMapper.toModel(beerDTO))))
+                .map(beerMapper::toDTO);
+    }
+
+    //GET By Name
+    public Mono<BeerDTO> findByName(String name) {
+        return beerRepository.findByName(name)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)))
+                .map(beerMapper::toDTO);
+    }
+
+    //GET
+    public Flux<BeerDTO> listAll() {
+        return beerRepository.findAll()
+                .map(beerMapper::toDTO);
+    }
+
+    //DELETE
+    public Mono<Void> deleteById(Long id) {
+        return verifyIfExists(id)
+                .flatMap(beer -> beerRepository.deleteById(id));
+    }
+
+    public Mono<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return verifyIfExists(id)
+                .flatMap(beerToIncrementStock -> {
+                    int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
+                    if (quantityAfterIncrement > beerToIncrementStock.getMax()) {
+                        return Mono.error(new BeerStockExceededException(id, quantityToIncrement));
+                    }
+                    beerToIncrementStock.setQuantity(quantityAfterIncrement);
+                    return beerRepository.save(beerToIncrementStock);
+                })
+                .map(beerMapper::toDTO);
+    }
+
+    private Mono<Beer> verifyIfExists(Long id) {
+        return beerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(id)));
+    }
+}
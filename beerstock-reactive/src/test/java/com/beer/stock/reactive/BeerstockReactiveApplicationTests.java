@@ -0,0 +1,53 @@
+package com.beer.stock.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.beer.stock.reactive.builder.BeerDTOBuilder;
+import com.beer.stock.reactive.dto.BeerDTO;
+import com.beer.stock.reactive.dto.QuantityDTO;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BeerstockReactiveApplicationTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void whenBeerIsCreatedThenItCanBeFoundListedIncrementedAndDeleted() {
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+
+		BeerDTO createdBeerDTO = webTestClient.post().uri("/api/v1/beers").bodyValue(beerDTO)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(BeerDTO.class).returnResult().getResponseBody();
+
+		webTestClient.get().uri("/api/v1/beers/{name}", beerDTO.getName())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.brand").isEqualTo(beerDTO.getBrand());
+
+		webTestClient.get().uri("/api/v1/beers").accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(BeerDTO.class).hasSize(1);
+
+		webTestClient.patch().uri("/api/v1/beers/{id}/increment", createdBeerDTO.getId())
+				.bodyValue(QuantityDTO.builder().quantity(10).build())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.quantity").isEqualTo(beerDTO.getQuantity() + 10);
+
+		webTestClient.delete().uri("/api/v1/beers/{id}", createdBeerDTO.getId())
+				.exchange()
+				.expectStatus().isNoContent();
+
+		webTestClient.get().uri("/api/v1/beers/{name}", beerDTO.getName())
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+}
@@ -0,0 +1,212 @@
+package com.beer.stock.reactive.controller;
+
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.beer.stock.reactive.builder.BeerDTOBuilder;
+import com.beer.stock.reactive.dto.BeerDTO;
+import com.beer.stock.reactive.dto.QuantityDTO;
+import com.beer.stock.reactive.exception.BeerNotFoundException;
+import com.beer.stock.reactive.exception.BeerStockExceptionHandler;
+import com.beer.stock.reactive.service.BeerService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerControllerTest {
+
+	private static final String BEER_API_URL_PATH = "/api/v1/beers";
+	private static final long VALID_BEER_ID = 1L;
+	private static final long INVALID_BEER_ID = 2L;
+	private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
+
+	private WebTestClient webTestClient;
+
+	@Mock
+	private BeerService beerService;
+
+	@InjectMocks
+	private BeerController beerController;
+
+	@BeforeEach
+	void setup() {
+		webTestClient = WebTestClient.bindToController(beerController)
+				.controllerAdvice(new BeerStockExceptionHandler())
+				.build();
+	}
+
+	@Test
+	@DisplayName("POST beer")
+	void whenPOSTIsCalledThenABeerIsCreated() {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+		// when
+		when(beerService.createBeer(beerDTO)).thenReturn(Mono.just(beerDTO));
+
+		// then
+		webTestClient.post().uri(BEER_API_URL_PATH).contentType(MediaType.APPLICATION_JSON).bodyValue(beerDTO)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo(beerDTO.getName())
+				.jsonPath("$.brand").isEqualTo(beerDTO.getBrand())
+				.jsonPath("$.type").isEqualTo(beerDTO.getType().toString());
+	}
+
+	@Test
+	@DisplayName("POST beer without required fields")
+	void whenPOSTIsCalledWithoudRrquiredFieldThenErrorIsReturned() {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		beerDTO.setBrand(null);
+
+		// then
+		webTestClient.post().uri(BEER_API_URL_PATH).contentType(MediaType.APPLICATION_JSON).bodyValue(beerDTO)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+				.expectBody()
+				.jsonPath("$.code").isEqualTo("VALIDATION_FAILED");
+	}
+
+	@Test
+	@DisplayName("GET beer by name")
+	void whenGETIsCalledWithValidNameThenOkStatusIsReturned() {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+		// when
+		when(beerService.findByName(beerDTO.getName())).thenReturn(Mono.just(beerDTO));
+
+		// then
+		webTestClient.get().uri(BEER_API_URL_PATH + "/" + beerDTO.getName())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo(beerDTO.getName())
+				.jsonPath("$.brand").isEqualTo(beerDTO.getBrand())
+				.jsonPath("$.type").isEqualTo(beerDTO.getType().toString());
+	}
+
+	@Test
+	@DisplayName("GET beer by name BeerNotFoundException")
+	void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusReturned() {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+		// when
+		when(beerService.findByName(beerDTO.getName())).thenReturn(Mono.error(new BeerNotFoundException(beerDTO.getName())));
+
+		// then
+		webTestClient.get().uri(BEER_API_URL_PATH + "/" + beerDTO.getName())
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+				.expectBody()
+				.jsonPath("$.type").isEqualTo("/problems/beer-not-found")
+				.jsonPath("$.status").isEqualTo(404)
+				.jsonPath("$.instance").isEqualTo(BEER_API_URL_PATH + "/" + beerDTO.getName())
+				.jsonPath("$.code").isEqualTo("BEER_NOT_FOUND");
+	}
+
+	@Test
+	@DisplayName("GET All beer")
+	void whenGETListWithBeersIsCalledThenOkStatusIsReturned() {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+		// when
+		when(beerService.listAll()).thenReturn(Flux.just(beerDTO));
+
+		// then
+		webTestClient.get().uri(BEER_API_URL_PATH).accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$[0].name").isEqualTo(beerDTO.getName())
+				.jsonPath("$[0].brand").isEqualTo(beerDTO.getBrand())
+				.jsonPath("$[0].type").isEqualTo(beerDTO.getType().toString());
+	}
+
+	@Test
+	@DisplayName("GET Empty List beer")
+	void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() {
+
+		// when
+		when(beerService.listAll()).thenReturn(Flux.empty());
+
+		// then
+		webTestClient.get().uri(BEER_API_URL_PATH).accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	@DisplayName("DELETE beer by Id")
+	void whenDELETECalledWithValidIdTheNoContentStatusIdReturned() {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+		// when
+		when(beerService.deleteById(beerDTO.getId())).thenReturn(Mono.empty());
+
+		// then
+		webTestClient.delete().uri(BEER_API_URL_PATH + "/" + beerDTO.getId())
+				.exchange()
+				.expectStatus().isNoContent();
+	}
+
+	@Test
+	@DisplayName("DELETE beer with Invalid Id")
+	void whenDELETECalledWithInValidIdThenNotFoundStatusReturned() {
+
+		// when
+		when(beerService.deleteById(INVALID_BEER_ID)).thenReturn(Mono.error(new BeerNotFoundException(INVALID_BEER_ID)));
+
+		// then
+		webTestClient.delete().uri(BEER_API_URL_PATH + "/" + INVALID_BEER_ID)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@DisplayName("PATCH Quantity")
+	@Test
+	void whenPatchIsCalledToIncrementThenOkStatusIsReturned() {
+
+		// given
+		QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		beerDTO.setQuantity(beerDTO.getQuantity() + quantityDTO.getQuantity());
+
+		// when
+		when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(Mono.just(beerDTO));
+
+		// then
+		webTestClient.patch().uri(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+				.contentType(MediaType.APPLICATION_JSON).bodyValue(quantityDTO)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo(beerDTO.getName())
+				.jsonPath("$.brand").isEqualTo(beerDTO.getBrand())
+				.jsonPath("$.type").isEqualTo(beerDTO.getType().toString());
+	}
+}
@@ -0,0 +1,198 @@
+package com.beer.stock.reactive.service;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.beer.stock.reactive.builder.BeerDTOBuilder;
+import com.beer.stock.reactive.dto.BeerDTO;
+import com.beer.stock.reactive.entity.Beer;
+import com.beer.stock.reactive.exception.BeerAlreadyRegisteredException;
+import com.beer.stock.reactive.exception.BeerNotFoundException;
+import com.beer.stock.reactive.exception.BeerStockExceededException;
+import com.beer.stock.reactive.mapper.BeerMapper;
+import com.beer.stock.reactive.repository.BeerRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerServiceTest {
+
+	private static final long INVALID_BEER_ID = 1L;
+
+	@Mock
+	private BeerRepository beerRepository;
+
+	private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+	private BeerService beerService;
+
+	@BeforeEach
+	void setup() {
+		beerService = new BeerService(beerRepository, beerMapper);
+	}
+
+	@Test
+	void whenBeerInformedThenItShouldBeCreated() {
+
+		//given
+		BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedSavedBeer = beerMapper.toModel(expectedBeerDTO);
+
+		//when
+		when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Mono.empty());
+		when(beerRepository.save(expectedSavedBeer)).thenReturn(Mono.just(expectedSavedBeer));
+
+		//then
+		StepVerifier.create(beerService.createBeer(expectedBeerDTO))
+				.expectNext(expectedBeerDTO)
+				.verifyComplete();
+	}
+
+	@Test
+	void whenAlreadyRegisteredBeerInformedThenAnExceptionShouldBeThrown() {
+
+		//given
+		BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer duplicatedBeer = beerMapper.toModel(expectedBeerDTO);
+
+		//when
+		when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Mono.just(duplicatedBeer));
+
+		//then
+		StepVerifier.create(beerService.createBeer(expectedBeerDTO))
+				.expectError(BeerAlreadyRegisteredException.class)
+				.verify();
+	}
+
+	@Test
+	void whenValidBeerNameIsGivenThenReturnABeer() {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+		//when
+		when(beerRepository.findByName(expectedFoundBeer.getName())).thenReturn(Mono.just(expectedFoundBeer));
+
+		//then
+		StepVerifier.create(beerService.findByName(expectedFoundBeerDTO.getName()))
+				.expectNext(expectedFoundBeerDTO)
+				.verifyComplete();
+	}
+
+	@Test
+	void whenNotRegisteredBeerNameIsGivenThenThrowAnException() {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+		//when
+		when(beerRepository.findByName(expectedFoundBeerDTO.getName())).thenReturn(Mono.empty());
+
+		//then
+		StepVerifier.create(beerService.findByName(expectedFoundBeerDTO.getName()))
+				.expectError(BeerNotFoundException.class)
+				.verify();
+	}
+
+	@Test
+	void whenListBeerIsCalledThenReturnAListOfBeers() {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+		//when
+		when(beerRepository.findAll()).thenReturn(Flux.just(expectedFoundBeer));
+
+		//then
+		StepVerifier.create(beerService.listAll())
+				.expectNext(expectedFoundBeerDTO)
+				.verifyComplete();
+	}
+
+	@Test
+	void whenListBeerIsCalledThenReturnAnEmptyList() {
+
+		//when
+		when(beerRepository.findAll()).thenReturn(Flux.empty());
+
+		//then
+		StepVerifier.create(beerService.listAll())
+				.verifyComplete();
+	}
+
+	@Test
+	void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() {
+
+		//given
+		BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedDeletedBeer = beerMapper.toModel(expectedDeletedBeerDTO);
+
+		//when
+		when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Mono.just(expectedDeletedBeer));
+		when(beerRepository.deleteById(expectedDeletedBeerDTO.getId())).thenReturn(Mono.empty());
+
+		//then
+		StepVerifier.create(beerService.deleteById(expectedDeletedBeerDTO.getId()))
+				.verifyComplete();
+
+		verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
+		verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+	}
+
+	@Test
+	void whenExclusionIsCalledWithInValidIdThenThrowsBeerNotFoundException() {
+
+		//when
+		when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Mono.empty());
+
+		//then
+		StepVerifier.create(beerService.deleteById(INVALID_BEER_ID))
+				.expectError(BeerNotFoundException.class)
+				.verify();
+	}
+
+	@Test
+	void whenIncrementIsCalledThenIncrementBeerStock() {
+
+		//given
+		BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+		int quantityToIncrement = 10;
+
+		//when
+		when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Mono.just(expectedBeer));
+		when(beerRepository.save(expectedBeer)).thenReturn(Mono.just(expectedBeer));
+
+		//then
+		StepVerifier.create(beerService.increment(expectedBeerDTO.getId(), quantityToIncrement))
+				.expectNextMatches(incrementedBeerDTO -> incrementedBeerDTO.getQuantity() == expectedBeerDTO.getQuantity() + quantityToIncrement)
+				.verifyComplete();
+	}
+
+	@Test
+	void whenIncrementAfterSumISGreaterThanMaxThenThrowException() {
+
+		//given
+		BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+		//when
+		when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Mono.just(expectedBeer));
+
+		//then
+		StepVerifier.create(beerService.increment(expectedBeerDTO.getId(), 45))
+				.expectError(BeerStockExceededException.class)
+				.verify();
+	}
+}
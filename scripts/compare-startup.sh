@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the JVM and native builds.
+#
+#   mvn -DskipTests package && cp target/beerstocklocal-*.jar /tmp/beerstocklocal-jvm.jar
+#   mvn -Pnative -DskipTests package
+#   scripts/compare-startup.sh /tmp/beerstocklocal-jvm.jar target/beerstocklocal
+#
+# Each build is started RUNS times; startup is the time until the readiness
+# probe answers UP, RSS is read from /proc once it does.
+set -euo pipefail
+
+JAR=${1:?path to the executable jar}
+NATIVE=${2:?path to the native executable}
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+READY_URL="http://localhost:${PORT}/actuator/health/readiness"
+
+measure() {
+    local label=$1
+    shift
+    local total_ms=0 total_rss_kb=0
+    for run in $(seq 1 "$RUNS"); do
+        local start
+        start=$(date +%s%N)
+        "$@" --server.port="$PORT" --management.endpoint.health.probes.enabled=true >/dev/null 2>&1 &
+        local pid=$!
+        until curl -fs "$READY_URL" >/dev/null 2>&1; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$label exited before becoming ready" >&2
+                exit 1
+            fi
+            sleep 0.01
+        done
+        local elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+        local rss_kb
+        rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        total_ms=$((total_ms + elapsed_ms))
+        total_rss_kb=$((total_rss_kb + rss_kb))
+    done
+    printf '%-8s startup %6d ms   RSS %7d KB   (mean of %d runs)\n' \
+        "$label" $((total_ms / RUNS)) $((total_rss_kb / RUNS)) "$RUNS"
+}
+
+measure jvm java -jar "$JAR" --spring.profiles.active=native
+measure native "$NATIVE" --spring.profiles.active=native
@@ -3,10 +3,12 @@ package com.beer.stock.local;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.beer.stock.local.mapper.BeerMapper;
 
 @SpringBootApplication(scanBasePackages = "com.beer.stock.local")
+@EnableScheduling
 public class BeerstocklocalApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,66 @@
+package com.beer.stock.local.actuator;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.dto.QueryStatsDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * Lists repository methods ordered by their slowest observed latency, built
+ * from the {@code spring.data.repository.invocations} timers that Spring Boot
+ * records for every {@code BeerRepository} call.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final String REPOSITORY_TIMER = "spring.data.repository.invocations";
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    public SlowQueriesEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public List<QueryStatsDTO> slowQueries(@Nullable Integer limit) {
+        return meterRegistry.find(REPOSITORY_TIMER).timers()
+                .stream()
+                .map(this::toQueryStats)
+                .sorted(Comparator.comparingDouble(QueryStatsDTO::getMaxMillis).reversed())
+                .limit(limit != null ? limit : DEFAULT_LIMIT)
+                .collect(Collectors.toList());
+    }
+
+    private QueryStatsDTO toQueryStats(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return QueryStatsDTO.builder()
+                .repository(timer.getId().getTag("repository"))
+                .method(timer.getId().getTag("method"))
+                .state(timer.getId().getTag("state"))
+                .count(snapshot.count())
+                .meanMillis(snapshot.mean(TimeUnit.MILLISECONDS))
+                .maxMillis(snapshot.max(TimeUnit.MILLISECONDS))
+                .percentileMillis(percentiles)
+                .build();
+    }
+}
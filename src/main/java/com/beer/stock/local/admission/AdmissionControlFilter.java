@@ -0,0 +1,93 @@
+package com.beer.stock.local.admission;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission layer in front of the mutating beer endpoints. A request first
+ * has to take a token from its client's bucket (429 otherwise) and then a
+ * slot under the adaptive concurrency limit (503 otherwise), so floods are
+ * shed before they reach {@code BeerService} and the connection pool.
+ *
+ * <p>Clients are keyed by their authenticated principal, or by remote address
+ * for anonymous requests. Client-supplied ids are deliberately ignored: a
+ * caller rotating them would get a fresh burst each time. Behind a proxy, set
+ * {@code server.forward-headers-strategy} so the remote address is the
+ * client's rather than the proxy's.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String BEER_API_PATH = "/api/v1/beers";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter rateLimitedCounter;
+    private final Counter overloadedCounter;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = new ClientRateLimiter(properties.getBurst(), properties.getRequestsPerSecond(),
+                properties.getMaxClients());
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(),
+                properties.getMinLimit(), properties.getMaxLimit(), properties.getLatencyThreshold().toNanos(),
+                properties.getBackoffRatio());
+        this.rateLimitedCounter = meterRegistry.counter("beerstock.admission.rejected", "reason", "rate_limited");
+        this.overloadedCounter = meterRegistry.counter("beerstock.admission.rejected", "reason", "overloaded");
+        Gauge.builder("beerstock.admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("beerstock.admission.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("beerstock.admission.clients", rateLimiter, ClientRateLimiter::trackedClients)
+                .register(meterRegistry);
+    }
+
+    public void evictIdleClients() {
+        rateLimiter.evictIdle(System.nanoTime());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                || HttpMethod.HEAD.matches(request.getMethod())
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(BEER_API_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        if (!rateLimiter.tryAcquire(clientId(request), start)) {
+            rateLimitedCounter.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloadedCounter.increment();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String principal = request.getRemoteUser();
+        return principal != null ? "user:" + principal : "addr:" + request.getRemoteAddr();
+    }
+}
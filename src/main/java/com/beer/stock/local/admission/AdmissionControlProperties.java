@@ -0,0 +1,30 @@
+package com.beer.stock.local.admission;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    private double requestsPerSecond = 50;
+
+    private double burst = 100;
+
+    private int maxClients = 10_000;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    private Duration latencyThreshold = Duration.ofMillis(100);
+
+    private double backoffRatio = 0.9;
+}
@@ -0,0 +1,56 @@
+package com.beer.stock.local.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One lock-free {@link TokenBucket} per client, held in a concurrent map so
+ * requests of different clients never contend. The table is bounded to
+ * {@code maxClients}: once full, new clients share a single overflow bucket
+ * instead of growing it, and {@link #evictIdle} (run periodically) drops the
+ * buckets that have refilled completely, making room again. A bucket dropped
+ * just as its client returns costs that client at most one extra token.
+ */
+public class ClientRateLimiter {
+
+    private final double burst;
+    private final double tokensPerSecond;
+    private final int maxClients;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+
+    public ClientRateLimiter(double burst, double tokensPerSecond, int maxClients) {
+        this.burst = burst;
+        this.tokensPerSecond = tokensPerSecond;
+        this.maxClients = maxClients;
+        this.overflowBucket = new TokenBucket(burst, tokensPerSecond, System.nanoTime());
+    }
+
+    public boolean tryAcquire(String clientId, long nowNanos) {
+        return bucketFor(clientId, nowNanos).tryAcquire(nowNanos);
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+
+    /**
+     * Drops the buckets of clients idle long enough to have refilled, which
+     * loses no rate-limiting state.
+     */
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos));
+    }
+
+    private TokenBucket bucketFor(String clientId, long nowNanos) {
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        // checked before inserting, so concurrent new clients can overshoot the bound by at most their number
+        if (buckets.size() >= maxClients) {
+            return overflowBucket;
+        }
+        return buckets.computeIfAbsent(clientId, key -> new TokenBucket(burst, tokensPerSecond, nowNanos));
+    }
+}
@@ -0,0 +1,58 @@
+package com.beer.stock.local.admission;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The token count and the last refill instant live in
+ * one immutable state swapped with compare-and-set, so concurrent requests
+ * from the same client never block each other.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(double capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double available = refill(current, nowNanos);
+            if (available < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1, Math.max(nowNanos, current.lastRefillNanos)))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * A bucket untouched for this long has refilled completely, so dropping it
+     * and creating a fresh one later loses no rate-limiting state.
+     */
+    public boolean isIdle(long nowNanos) {
+        return refill(state.get(), nowNanos) >= capacity;
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.lastRefillNanos);
+        return Math.min(capacity, current.tokens + elapsed * tokensPerNano);
+    }
+
+    private static final class State {
+
+        private final double tokens;
+        private final long lastRefillNanos;
+
+        private State(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
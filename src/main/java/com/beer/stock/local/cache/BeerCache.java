@@ -0,0 +1,141 @@
+package com.beer.stock.local.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.tenancy.TenantContext;
+
+/**
+ * In-process cache of beer lookups by name, kept coherent through the
+ * {@link BeerInvalidationBus}. A value loaded before an invalidation is
+ * never stored after it: {@link #put} is rejected when the bus revision moved
+ * since the caller started loading. Keys are scoped by {@link TenantContext},
+ * so tenants sharing a name or an id never see each other's entries.
+ *
+ * <p>Entries are spread over independently locked segments, each evicting its
+ * least recently used entry once full, so the cache holds at most
+ * {@code maxSize} names and keeps admitting new ones without a global lock.
+ */
+@Component
+public class BeerCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final BeerInvalidationBus invalidationBus;
+    private final Segment[] segments;
+    private final Map<String, String> namesById = new ConcurrentHashMap<>();
+
+    public BeerCache(BeerInvalidationBus invalidationBus, @Value("${beerstock.cache.max-size:10000}") int maxSize) {
+        this.invalidationBus = invalidationBus;
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxSize));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+        invalidationBus.subscribe((beerId, revision) -> invalidate(beerId));
+    }
+
+    public Optional<BeerDTO> findByName(String name) {
+        String nameKey = TenantContext.scopedKey(name);
+        Segment segment = segmentFor(nameKey);
+        synchronized (segment) {
+            CachedBeer cachedBeer = segment.get(nameKey);
+            return cachedBeer == null ? Optional.empty() : Optional.of(cachedBeer.beerDTO);
+        }
+    }
+
+    public long currentRevision() {
+        return invalidationBus.getRevision();
+    }
+
+    public void put(BeerDTO beerDTO, long revisionBeforeLoad) {
+        String nameKey = TenantContext.scopedKey(beerDTO.getName());
+        Segment segment = segmentFor(nameKey);
+        // the entry goes in before its id mapping, so an invalidation racing with this put either finds the
+        // mapping or is caught by the revision check below, which removes exactly what was stored here
+        synchronized (segment) {
+            segment.put(nameKey, new CachedBeer(beerDTO, TenantContext.getTenant()));
+        }
+        String idKey = TenantContext.scopedKey(beerDTO.getId());
+        namesById.put(idKey, nameKey);
+        if (invalidationBus.getRevision() != revisionBeforeLoad) {
+            remove(nameKey, beerDTO);
+            namesById.remove(idKey, nameKey);
+        }
+    }
+
+    public void invalidate(Long beerId) {
+        String nameKey = namesById.remove(TenantContext.scopedKey(beerId));
+        if (nameKey != null) {
+            Segment segment = segmentFor(nameKey);
+            synchronized (segment) {
+                segment.remove(nameKey);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private void remove(String nameKey, BeerDTO beerDTO) {
+        Segment segment = segmentFor(nameKey);
+        synchronized (segment) {
+            CachedBeer cachedBeer = segment.get(nameKey);
+            if (cachedBeer != null && cachedBeer.beerDTO == beerDTO) {
+                segment.remove(nameKey);
+            }
+        }
+    }
+
+    private Segment segmentFor(String nameKey) {
+        return segments[(nameKey.hashCode() & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static final class CachedBeer {
+
+        private final BeerDTO beerDTO;
+        private final String tenant;
+
+        private CachedBeer(BeerDTO beerDTO, String tenant) {
+            this.beerDTO = beerDTO;
+            this.tenant = tenant;
+        }
+    }
+
+    // access-ordered, guarded by its own monitor
+    private final class Segment extends LinkedHashMap<String, CachedBeer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedBeer> eldest) {
+            if (size() <= capacity) {
+                return false;
+            }
+            // evictions run on whichever tenant's put overflowed the segment, so the id is scoped explicitly
+            CachedBeer evicted = eldest.getValue();
+            namesById.remove(TenantContext.scopedKey(evicted.tenant, evicted.beerDTO.getId()), eldest.getKey());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.beer.stock.local.cache;
+
+/**
+ * Broadcasts the ids of changed beers to every cache in every instance of the
+ * application. {@link #getRevision()} grows by one with each change delivered
+ * on this node, so it doubles as a catalogue version for derived caches and
+ * as a change count for replica lag.
+ */
+public interface BeerInvalidationBus {
+
+    void publish(Long beerId);
+
+    void subscribe(BeerInvalidationListener listener);
+
+    long getRevision();
+}
@@ -0,0 +1,7 @@
+package com.beer.stock.local.cache;
+
+@FunctionalInterface
+public interface BeerInvalidationListener {
+
+    void onInvalidation(Long beerId, long revision);
+}
@@ -0,0 +1,242 @@
+package com.beer.stock.local.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.mapper.BeerMapper;
+import com.beer.stock.local.repository.BeerRepository;
+import com.beer.stock.local.tenancy.TenantContext;
+import com.beer.stock.local.tenancy.TenantPoolEvictedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The whole catalogue kept decoded and as pre-encoded JSON, so listing it
+ * costs a copy of bytes, or a walk over ready objects for the other wire
+ * formats, instead of a query plus mapping.
+ *
+ * <p>Every beer is mapped and encoded once and kept per id. Changes reported by the
+ * {@link BeerInvalidationBus} only queue the beer id; the next read reloads
+ * the queued ids in one query and re-encodes just those entries, so any
+ * number of changes between two reads costs one refresh. A snapshot only
+ * references the per-entry objects and arrays, written out one after the
+ * other: a change never copies the other entries' bytes, and nothing is held
+ * off-heap. Each tenant of the {@link TenantContext} gets its own
+ * snapshot, dropped when the tenant's pool is evicted.
+ */
+@Component
+public class CatalogueSnapshot {
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final ObjectMapper objectMapper;
+    private final Map<String, TenantCatalogue> tenantCatalogues = new ConcurrentHashMap<>();
+
+    public CatalogueSnapshot(BeerRepository beerRepository, BeerMapper beerMapper, ObjectMapper objectMapper,
+            BeerInvalidationBus invalidationBus) {
+        this.beerRepository = beerRepository;
+        this.beerMapper = beerMapper;
+        this.objectMapper = objectMapper;
+        invalidationBus.subscribe((beerId, revision) -> {
+            TenantCatalogue tenantCatalogue = tenantCatalogues.get(TenantContext.scopedKey(""));
+            if (tenantCatalogue != null) {
+                tenantCatalogue.changedIds.add(beerId);
+                tenantCatalogue.changes.incrementAndGet();
+            }
+        });
+    }
+
+    public Catalogue get() {
+        TenantCatalogue tenantCatalogue =
+                tenantCatalogues.computeIfAbsent(TenantContext.scopedKey(""), tenantKey -> new TenantCatalogue());
+        Catalogue catalogue = tenantCatalogue.current;
+        if (catalogue != null && catalogue.version == tenantCatalogue.changes.get()) {
+            return catalogue;
+        }
+        return tenantCatalogue.rebuild();
+    }
+
+    @EventListener
+    public void onTenantPoolEvicted(TenantPoolEvictedEvent event) {
+        tenantCatalogues.remove(TenantContext.scopedKey(event.getTenant(), ""));
+    }
+
+    private final class TenantCatalogue {
+
+        private final NavigableMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+        private final ConcurrentLinkedQueue<Long> changedIds = new ConcurrentLinkedQueue<>();
+        private final AtomicLong changes = new AtomicLong();
+        private volatile Catalogue current;
+        private boolean loaded;
+        private long entriesLength;
+
+        private synchronized Catalogue rebuild() {
+            long version = changes.get();
+            if (current != null && current.version == version) {
+                return current;
+            }
+            if (!loaded) {
+                changedIds.clear();
+                beerRepository.findAll().forEach(this::encode);
+                loaded = true;
+            } else if (!applyChanges() && current != null) {
+                current = current.withVersion(version);
+                return current;
+            }
+            BeerDTO[] beers = new BeerDTO[entries.size()];
+            byte[][] jsonEntries = new byte[beers.length][];
+            int i = 0;
+            for (Entry entry : entries.values()) {
+                beers[i] = entry.beer;
+                jsonEntries[i++] = entry.json;
+            }
+            current = new Catalogue(version, beers, jsonEntries, entriesLength);
+            return current;
+        }
+
+        private boolean applyChanges() {
+            Set<Long> ids = new HashSet<>();
+            for (Long id = changedIds.poll(); id != null; id = changedIds.poll()) {
+                ids.add(id);
+            }
+            if (ids.isEmpty()) {
+                return false;
+            }
+            beerRepository.findAllById(ids).forEach(beer -> {
+                ids.remove(beer.getId());
+                encode(beer);
+            });
+            ids.forEach(id -> {
+                Entry removed = entries.remove(id);
+                if (removed != null) {
+                    entriesLength -= removed.json.length;
+                }
+            });
+            return true;
+        }
+
+        private void encode(Beer beer) {
+            try {
+                BeerDTO beerDTO = beerMapper.toDTO(beer);
+                byte[] json = objectMapper.writeValueAsBytes(beerDTO);
+                Entry previous = entries.put(beer.getId(), new Entry(beerDTO, json));
+                entriesLength += json.length - (previous != null ? previous.json.length : 0);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final BeerDTO beer;
+        private final byte[] json;
+
+        private Entry(BeerDTO beer, byte[] json) {
+            this.beer = beer;
+            this.json = json;
+        }
+    }
+
+    /**
+     * Immutable list of the catalogue's beers, also holding their JSON
+     * encoding so message converters can write the bytes directly. Other
+     * formats serialise the beers as a plain list, with nothing decoded.
+     */
+    public static final class Catalogue extends AbstractList<BeerDTO> implements RandomAccess {
+
+        private final long version;
+        private final BeerDTO[] beers;
+        private final byte[][] entries;
+        private final long entriesLength;
+        private volatile byte[] gzip;
+
+        private Catalogue(long version, BeerDTO[] beers, byte[][] entries, long entriesLength) {
+            this.version = version;
+            this.beers = beers;
+            this.entries = entries;
+            this.entriesLength = entriesLength;
+        }
+
+        private Catalogue withVersion(long newVersion) {
+            Catalogue catalogue = new Catalogue(newVersion, beers, entries, entriesLength);
+            catalogue.gzip = gzip;
+            return catalogue;
+        }
+
+        @Override
+        public BeerDTO get(int index) {
+            return beers[index];
+        }
+
+        @Override
+        public int size() {
+            return entries.length;
+        }
+
+        public long jsonLength() {
+            return 2 + Math.max(0, entries.length - 1) + entriesLength;
+        }
+
+        public void writeJson(OutputStream outputStream) throws IOException {
+            outputStream.write('[');
+            for (int i = 0; i < entries.length; i++) {
+                if (i > 0) {
+                    outputStream.write(',');
+                }
+                outputStream.write(entries[i]);
+            }
+            outputStream.write(']');
+        }
+
+        public long gzipLength() {
+            return gzip().length;
+        }
+
+        public void writeGzip(OutputStream outputStream) throws IOException {
+            outputStream.write(gzip());
+        }
+
+        // compressed at most once per snapshot, and only when a client asks for it
+        private byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                synchronized (this) {
+                    compressed = gzip;
+                    if (compressed == null) {
+                        gzip = compressed = compress();
+                    }
+                }
+            }
+            return compressed;
+        }
+
+        private byte[] compress() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, jsonLength() / 4 + 64));
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(bytes, 8192)) {
+                writeJson(gzipStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
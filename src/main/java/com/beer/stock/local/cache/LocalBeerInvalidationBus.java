@@ -0,0 +1,52 @@
+package com.beer.stock.local.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Single-instance bus: changes are delivered to the listeners of this JVM
+ * only, right after the publishing transaction commits (or immediately when
+ * there is none), so no cache can reload the row before the change is visible.
+ */
+@Component
+@ConditionalOnProperty(name = "beerstock.invalidation.mode", havingValue = "local", matchIfMissing = true)
+public class LocalBeerInvalidationBus implements BeerInvalidationBus {
+
+    private final List<BeerInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong revision = new AtomicLong();
+
+    @Override
+    public void publish(Long beerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(beerId);
+                }
+            });
+        } else {
+            deliver(beerId);
+        }
+    }
+
+    private void deliver(Long beerId) {
+        long current = revision.incrementAndGet();
+        listeners.forEach(listener -> listener.onInvalidation(beerId, current));
+    }
+
+    @Override
+    public void subscribe(BeerInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getRevision() {
+        return revision.get();
+    }
+}
@@ -0,0 +1,140 @@
+package com.beer.stock.local.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.beer.stock.local.entity.BeerChangeEvent;
+import com.beer.stock.local.repository.BeerChangeEventRepository;
+
+/**
+ * Multi-instance bus backed by a {@code beer_change_event} outbox table in the
+ * shared database. Publishing inserts a row in the caller's transaction; every
+ * node polls the table and replays the rows it has not seen yet, so caches
+ * converge within one poll interval of the commit.
+ *
+ * <p>Polling follows event ids, never timestamps, so clock skew between nodes
+ * cannot hide an event. Ids are allocated before commit, so a slow transaction
+ * can become visible after a later id: each node keeps a watermark below which
+ * every id was delivered, re-reads the ids above it, and waits up to the gap
+ * timeout, measured on its own clock, for a missing id before treating it as a
+ * rolled-back transaction. For the same reason the revision counts delivered
+ * events instead of tracking the highest id: a late event with a lower id must
+ * still move it. Rows are stamped and pruned with database time.
+ */
+@Component
+@ConditionalOnProperty(name = "beerstock.invalidation.mode", havingValue = "outbox")
+public class OutboxBeerInvalidationBus implements BeerInvalidationBus {
+
+    private static final long NO_GAP = -1;
+
+    private final BeerChangeEventRepository beerChangeEventRepository;
+    private final long gapTimeoutNanos;
+    private final Duration retention;
+    private final List<BeerInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    // delivered ids above the watermark
+    private final NavigableSet<Long> deliveredEvents = new ConcurrentSkipListSet<>();
+    private final AtomicLong revision = new AtomicLong();
+    // guarded by this
+    private long watermark = NO_GAP;
+    private long gapSince = NO_GAP;
+
+    public OutboxBeerInvalidationBus(BeerChangeEventRepository beerChangeEventRepository,
+            @Value("${beerstock.invalidation.gap-timeout:1m}") Duration gapTimeout,
+            @Value("${beerstock.invalidation.retention:10m}") Duration retention) {
+        this.beerChangeEventRepository = beerChangeEventRepository;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.retention = retention;
+    }
+
+    @Override
+    public void publish(Long beerId) {
+        BeerChangeEvent event = beerChangeEventRepository.save(new BeerChangeEvent(null, beerId, null));
+        // the publishing node must not wait a poll interval to see its own write
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(event);
+                }
+            });
+        } else {
+            deliver(event);
+        }
+    }
+
+    @Override
+    public void subscribe(BeerInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getRevision() {
+        return revision.get();
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.invalidation.poll-interval-ms:200}")
+    public synchronized void poll() {
+        List<BeerChangeEvent> events = beerChangeEventRepository.findByIdGreaterThanOrderByIdAsc(Math.max(watermark, 0));
+        if (watermark == NO_GAP) {
+            if (events.isEmpty()) {
+                return;
+            }
+            // earlier ids were pruned or never existed, there is nothing to wait for below the first row
+            watermark = events.get(0).getId() - 1;
+        }
+        events.forEach(this::deliver);
+        advanceWatermark(System.nanoTime());
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.invalidation.prune-interval-ms:60000}")
+    @Transactional
+    public void prune() {
+        Instant now = beerChangeEventRepository.currentTimestamp();
+        beerChangeEventRepository.deleteByCreatedAtBefore(now.minus(retention));
+    }
+
+    private void advanceWatermark(long nowNanos) {
+        while (true) {
+            if (deliveredEvents.remove(watermark + 1)) {
+                watermark++;
+                gapSince = NO_GAP;
+                continue;
+            }
+            Long nextDelivered = deliveredEvents.higher(watermark);
+            if (nextDelivered == null) {
+                break;
+            }
+            if (gapSince == NO_GAP) {
+                gapSince = nowNanos;
+            }
+            if (nowNanos - gapSince < gapTimeoutNanos) {
+                break;
+            }
+            watermark = nextDelivered - 1;
+            gapSince = NO_GAP;
+        }
+        // a local delivery of an id given up on must not linger
+        deliveredEvents.headSet(watermark, true).clear();
+    }
+
+    private void deliver(BeerChangeEvent event) {
+        if (!deliveredEvents.add(event.getId())) {
+            return;
+        }
+        long current = revision.incrementAndGet();
+        listeners.forEach(listener -> listener.onInvalidation(event.getBeerId(), current));
+    }
+}
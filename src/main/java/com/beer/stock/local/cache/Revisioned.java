@@ -0,0 +1,26 @@
+package com.beer.stock.local.cache;
+
+/**
+ * A loaded value paired with the bus revision read before the load started.
+ * Callers that share a single-flight lookup must store the result under the
+ * loader's revision, not their own: a caller joining after an invalidation
+ * would otherwise cache a value read before that invalidation.
+ */
+public final class Revisioned<V> {
+
+    private final long revision;
+    private final V value;
+
+    public Revisioned(long revision, V value) {
+        this.revision = revision;
+        this.value = value;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public V getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,40 @@
+package com.beer.stock.local.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.beer.stock.local.admission.AdmissionControlFilter;
+import com.beer.stock.local.admission.AdmissionControlProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+@ConditionalOnProperty(name = "beerstock.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    private AdmissionControlFilter admissionControlFilter;
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        admissionControlFilter = new AdmissionControlFilter(properties, meterRegistry);
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(admissionControlFilter);
+        registration.addUrlPatterns("/api/v1/beers", "/api/v1/beers/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.admission.idle-client-sweep-interval-ms:10000}")
+    public void evictIdleClients() {
+        if (admissionControlFilter != null) {
+            admissionControlFilter.evictIdleClients();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.beer.stock.local.config;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.beer.stock.local.cache.CatalogueSnapshot.Catalogue;
+
+/**
+ * Writes a {@link Catalogue} as JSON by copying its pre-encoded entries to the
+ * response, serving the pre-compressed variant when the client accepts gzip
+ * with a non-zero quality. Other formats (CBOR, Smile) fall through to Jackson,
+ * since a catalogue is also a plain {@code List<BeerDTO>}.
+ */
+public class CatalogueHttpMessageConverter extends AbstractHttpMessageConverter<Catalogue> {
+
+    private static final String GZIP = "gzip";
+
+    public CatalogueHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Catalogue.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Catalogue readInternal(Class<? extends Catalogue> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Catalogue snapshots are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Catalogue catalogue, MediaType contentType) {
+        // depends on the negotiated encoding, set in writeInternal
+        return null;
+    }
+
+    @Override
+    protected void writeInternal(Catalogue catalogue, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip()) {
+            outputMessage.getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            outputMessage.getHeaders().setContentLength(catalogue.gzipLength());
+            catalogue.writeGzip(outputMessage.getBody());
+        } else {
+            outputMessage.getHeaders().setContentLength(catalogue.jsonLength());
+            catalogue.writeJson(outputMessage.getBody());
+        }
+    }
+
+    private boolean acceptsGzip() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        return acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Whether an Accept-Encoding value allows gzip: listed explicitly, or
+     * covered by "*" when not listed, with a quality above zero (RFC 7231).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                gzipQuality = quality;
+            } else if ("*".equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+        Double effective = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return effective != null && effective > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
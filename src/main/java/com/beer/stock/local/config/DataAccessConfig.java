@@ -0,0 +1,18 @@
+package com.beer.stock.local.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DataAccessConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sampledSqlLoggingCustomizer(
+            @Value("${beerstock.sql-log.sample-rate:0}") double sampleRate) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SampledSqlStatementInspector(sampleRate));
+    }
+}
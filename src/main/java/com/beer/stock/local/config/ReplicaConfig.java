@@ -0,0 +1,108 @@
+package com.beer.stock.local.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.beer.stock.local.cache.BeerInvalidationBus;
+import com.beer.stock.local.replica.ReadYourWritesFilter;
+import com.beer.stock.local.replica.ReplicaNode;
+import com.beer.stock.local.replica.ReplicaProperties;
+import com.beer.stock.local.replica.ReplicaReplicator;
+import com.beer.stock.local.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(name = "beerstock.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    public List<ReplicaNode> replicaNodes(ReplicaProperties replicaProperties,
+            @Value("${beerstock.tenancy.enabled:false}") boolean tenancyEnabled) {
+        if (tenancyEnabled) {
+            throw new IllegalStateException("beerstock.replica.enabled and beerstock.tenancy.enabled "
+                    + "both replace the primary datasource and cannot be combined");
+        }
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (String url : replicaProperties.getUrls()) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(replicaProperties.getUsername());
+            dataSource.setPassword(replicaProperties.getPassword());
+            dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            if (replicaProperties.isReplicate()) {
+                Flyway.configure().dataSource(dataSource).load().migrate();
+            }
+            replicas.add(new ReplicaNode(name, dataSource));
+        }
+        return replicas;
+    }
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // the outbox bus needs JPA, which needs this datasource, hence the lazy bus
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, List<ReplicaNode> replicaNodes,
+            @Lazy BeerInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        for (ReplicaNode replica : replicaNodes) {
+            Gauge.builder("beerstock.replica.lag", replica, node -> node.lag(invalidationBus.getRevision()))
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaNodes, invalidationBus, meterRegistry));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "beerstock.replica.replicate", havingValue = "true", matchIfMissing = true)
+    public ReplicaReplicator replicaReplicator(HikariDataSource primaryDataSource, List<ReplicaNode> replicaNodes,
+            BeerInvalidationBus invalidationBus) {
+        return new ReplicaReplicator(primaryDataSource, replicaNodes, invalidationBus);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "beerstock.replica.replicate", havingValue = "true", matchIfMissing = true)
+    public ApplicationRunner replicaInitialCopy(ReplicaReplicator replicaReplicator) {
+        // runners execute once the primary schema exists and before readiness
+        return args -> replicaReplicator.start();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties replicaProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow()));
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(!replicaProperties.getReadYourWritesWindow().isZero());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
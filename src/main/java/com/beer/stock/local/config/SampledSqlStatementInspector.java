@@ -0,0 +1,34 @@
+package com.beer.stock.local.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs a random sample of the SQL statements Hibernate prepares, replacing
+ * {@code spring.jpa.show-sql}, which writes every statement to stdout on the
+ * request thread. The {@code beerstock.sql} logger is routed through an
+ * asynchronous appender (see logback-spring.xml).
+ */
+public class SampledSqlStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger SQL_LOGGER = LoggerFactory.getLogger("beerstock.sql");
+
+    private final double sampleRate;
+
+    public SampledSqlStatementInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && SQL_LOGGER.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            SQL_LOGGER.info("event=sql.sampled sampleRate={} thread={} statement=\"{}\"",
+                    sampleRate, Thread.currentThread().getName(), sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,29 @@
+package com.beer.stock.local.config;
+
+import java.util.Optional;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.beer.stock.local.cache.Revisioned;
+import com.beer.stock.local.concurrent.SingleFlight;
+import com.beer.stock.local.entity.Beer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, Revisioned<Optional<Beer>>> findByNameSingleFlight(MeterRegistry meterRegistry) {
+        SingleFlight<String, Revisioned<Optional<Beer>>> singleFlight = new SingleFlight<>();
+        FunctionCounter.builder("beerstock.singleflight.calls", singleFlight, SingleFlight::getExecutedCount)
+                .tag("lookup", "findByName").tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("beerstock.singleflight.calls", singleFlight, SingleFlight::getCollapsedCount)
+                .tag("lookup", "findByName").tag("result", "collapsed")
+                .register(meterRegistry);
+        return singleFlight;
+    }
+}
@@ -0,0 +1,73 @@
+package com.beer.stock.local.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.beer.stock.local.tenancy.TenancyProperties;
+import com.beer.stock.local.tenancy.TenantFilter;
+import com.beer.stock.local.tenancy.TenantPoolEvictedEvent;
+import com.beer.stock.local.tenancy.TenantRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+@ConditionalOnProperty(name = "beerstock.tenancy.enabled", havingValue = "true")
+public class TenancyConfig {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private TenantRoutingDataSource tenantRoutingDataSource;
+
+    public TenancyConfig(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Bean
+    @Primary
+    public TenantRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+            TenancyProperties tenancyProperties, MeterRegistry meterRegistry,
+            @Value("${beerstock.invalidation.mode:local}") String invalidationMode) {
+        // the outbox pollers run without a tenant, so they would only ever see the default database
+        if ("outbox".equals(invalidationMode)) {
+            throw new IllegalStateException("beerstock.invalidation.mode=outbox and beerstock.tenancy.enabled "
+                    + "cannot be combined");
+        }
+        DataSource defaultDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        tenantRoutingDataSource = new TenantRoutingDataSource(defaultDataSource, tenancyProperties);
+        Gauge.builder("beerstock.tenancy.pools", tenantRoutingDataSource, TenantRoutingDataSource::getActivePoolCount)
+                .register(meterRegistry);
+        return tenantRoutingDataSource;
+    }
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenancyProperties tenancyProperties) {
+        FilterRegistrationBean<TenantFilter> registration =
+                new FilterRegistrationBean<>(new TenantFilter(tenancyProperties.getHeader(), tenancyProperties.getTenants()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.tenancy.eviction-interval-ms:60000}")
+    public void evictIdleTenantPools() {
+        if (tenantRoutingDataSource != null) {
+            tenantRoutingDataSource.evictIdlePools()
+                    .forEach(tenant -> eventPublisher.publishEvent(new TenantPoolEvictedEvent(tenant)));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.beer.stock.local.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers the binary wire formats offered next to JSON. Clients pick one
+ * through the {@code Accept} header ({@code application/cbor} or
+ * {@code application/x-jackson-smile}); JSON stays the default.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public CatalogueHttpMessageConverter catalogueHttpMessageConverter() {
+        return new CatalogueHttpMessageConverter();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.cbor().build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.smile().build());
+    }
+}
@@ -0,0 +1,23 @@
+package com.beer.stock.local.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.beer.stock.local.write.WriteCoordinator;
+import com.beer.stock.local.write.WriteProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(WriteProperties.class)
+public class WriteConfig {
+
+    // shut down before the datasource, after draining the queued writes
+    @Bean(destroyMethod = "shutdown")
+    public WriteCoordinator writeCoordinator(TransactionTemplate transactionTemplate, WriteProperties properties,
+            MeterRegistry meterRegistry) {
+        return new WriteCoordinator(transactionTemplate, properties, meterRegistry);
+    }
+}
@@ -5,7 +5,10 @@ import java.util.List;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,15 +16,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.dto.BeerDeleteFilterDTO;
+import com.beer.stock.local.dto.BeerFilterDTO;
+import com.beer.stock.local.dto.BulkDeleteResultDTO;
 import com.beer.stock.local.dto.QuantityDTO;
+import com.beer.stock.local.dto.ReplenishmentPlanDTO;
+import com.beer.stock.local.dto.StockHistoryDTO;
+import com.beer.stock.local.dto.StockHistoryQueryDTO;
 import com.beer.stock.local.exception.BeerAlreadyRegisteredException;
 import com.beer.stock.local.exception.BeerNotFoundException;
 import com.beer.stock.local.exception.BeerStockExceededException;
+import com.beer.stock.local.history.StockHistoryStore;
 import com.beer.stock.local.service.BeerService;
+import com.beer.stock.local.service.ReplenishmentPlanner;
 
 import lombok.AllArgsConstructor;
 
@@ -31,6 +41,8 @@ import lombok.AllArgsConstructor;
 public class BeerController implements BeerControllerDocs {
 
     private BeerService beerService;
+    private ReplenishmentPlanner replenishmentPlanner;
+    private StockHistoryStore stockHistoryStore;
     
 	/*
 	 * @Autowired public BeerController(BeerService beerService) { this.beerService
@@ -38,9 +50,8 @@ public class BeerController implements BeerControllerDocs {
 	 */
     
 	@PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public BeerDTO createBeer(@RequestBody @Valid BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
-        return beerService.createBeer(beerDTO);
+    public ResponseEntity<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
+        return written(beerService.createBeer(beerDTO), HttpStatus.CREATED);
     }
 
     @GetMapping("/{name}")
@@ -53,14 +64,38 @@ public class BeerController implements BeerControllerDocs {
         return beerService.listAll();
     }
 
+    @GetMapping("/search")
+    public Page<BeerDTO> searchBeers(@Valid BeerFilterDTO filter, Pageable pageable) {
+        return beerService.search(filter, pageable);
+    }
+
+    @GetMapping("/replenishment")
+    public ReplenishmentPlanDTO replenishment() {
+        return replenishmentPlanner.plan();
+    }
+
+    @GetMapping("/{id}/history")
+    public StockHistoryDTO history(@PathVariable Long id, @Valid StockHistoryQueryDTO query) {
+        return stockHistoryStore.history(id, query);
+    }
+
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteById(@PathVariable Long id) throws BeerNotFoundException {
-        beerService.deleteById(id);
+    public ResponseEntity<Void> deleteById(@PathVariable Long id) throws BeerNotFoundException {
+        return beerService.deleteById(id) ? ResponseEntity.noContent().build() : ResponseEntity.accepted().build();
+    }
+
+    @DeleteMapping
+    public BulkDeleteResultDTO deleteBeers(@Valid BeerDeleteFilterDTO filter) {
+        return new BulkDeleteResultDTO(beerService.deleteAll(filter));
     }
 
     @PatchMapping("/{id}/increment")
-    public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
-        return beerService.increment(id, quantityDTO.getQuantity());
+    public ResponseEntity<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
+        return written(beerService.increment(id, quantityDTO.getQuantity()), HttpStatus.OK);
+    }
+
+    // writes only queued under the async durability mode have no result yet: 202 Accepted
+    private static ResponseEntity<BeerDTO> written(BeerDTO beerDTO, HttpStatus status) {
+        return beerDTO != null ? ResponseEntity.status(status).body(beerDTO) : ResponseEntity.accepted().build();
     }
 }
@@ -2,9 +2,18 @@ package com.beer.stock.local.controller;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.dto.BeerDeleteFilterDTO;
+import com.beer.stock.local.dto.BeerFilterDTO;
+import com.beer.stock.local.dto.BulkDeleteResultDTO;
+import com.beer.stock.local.dto.ReplenishmentPlanDTO;
+import com.beer.stock.local.dto.StockHistoryDTO;
+import com.beer.stock.local.dto.StockHistoryQueryDTO;
 import com.beer.stock.local.exception.BeerAlreadyRegisteredException;
 import com.beer.stock.local.exception.BeerNotFoundException;
 
@@ -19,9 +28,10 @@ public interface BeerControllerDocs {
     @ApiOperation(value = "Beer creation operation")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Success beer creation"),
-            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+            @ApiResponse(code = 202, message = "Creation queued, under the async durability mode"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value or a name reserved by a sub-path (search, replenishment).")
     })
-    BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
+    ResponseEntity<BeerDTO> createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
     @ApiOperation(value = "Returns beer found by a given name")
     @ApiResponses(value = {
@@ -36,10 +46,38 @@ public interface BeerControllerDocs {
     })
     List<BeerDTO> listBeers();
 
+    @ApiOperation(value = "Returns a page of beers filtered by type, brand, minimum quantity or maximum fill ratio (quantity / max), sorted with sort=field,direction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers matching the given filters"),
+            @ApiResponse(code = 400, message = "Filter value out of range.")
+    })
+    Page<BeerDTO> searchBeers(BeerFilterDTO filter, Pageable pageable);
+
+    @ApiOperation(value = "Returns reorder suggestions grouped by brand and beer type")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Replenishment plan for the current catalogue"),
+    })
+    ReplenishmentPlanDTO replenishment();
+
+    @ApiOperation(value = "Returns the quantity history of a beer as min/max/avg buckets of resolution raw, minute, hour, day or auto, between from and to (ISO instants)", notes = "History is stored in the database, so it covers the changes committed by every instance; each resolution reaches back as far as its retention.")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Quantity buckets in the requested range, oldest first"),
+            @ApiResponse(code = 400, message = "Unknown resolution or from not before to.")
+    })
+    StockHistoryDTO history(@PathVariable Long id, StockHistoryQueryDTO query);
+
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
+            @ApiResponse(code = 202, message = "Deletion queued, under the async durability mode"),
             @ApiResponse(code = 204, message = "Success beer deleted in the system"),
             @ApiResponse(code = 404, message = "Beer with given id not found.")
     })
-    void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+    ResponseEntity<Void> deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Delete every beer matching a list of ids (ids=1,2,3), a type or a brand, in batched transactions")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Number of beers deleted"),
+            @ApiResponse(code = 400, message = "None or more than one of ids, type and brand given.")
+    })
+    BulkDeleteResultDTO deleteBeers(BeerDeleteFilterDTO filter);
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.beer.stock.local.dto;
 
+import java.util.Arrays;
+import java.util.List;
+
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
 import com.beer.stock.local.enums.BeerType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +24,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class BeerDTO {
 
+    // literal sub-paths of /api/v1/beers; GET /{name} could never reach a beer named after one
+    private static final List<String> RESERVED_NAMES = Arrays.asList("search", "replenishment");
+
     private Long id;
 
     @NotNull
@@ -40,4 +48,10 @@ public class BeerDTO {
     @Enumerated(EnumType.STRING)
     @NotNull
     private BeerType type;
+
+    @JsonIgnore
+    @AssertTrue(message = "name must not be search or replenishment")
+    public boolean isNameRoutable() {
+        return name == null || !RESERVED_NAMES.contains(name);
+    }
 }
@@ -0,0 +1,33 @@
+package com.beer.stock.local.dto;
+
+import java.util.List;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Size;
+
+import com.beer.stock.local.enums.BeerType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerDeleteFilterDTO {
+
+    @Size(max = 10000)
+    private List<Long> ids;
+
+    private BeerType type;
+
+    private String brand;
+
+    @AssertTrue(message = "requires exactly one of ids, type or brand")
+    public boolean isSingleCriterion() {
+        int criteria = (ids != null && !ids.isEmpty() ? 1 : 0) + (type != null ? 1 : 0) + (brand != null ? 1 : 0);
+        return criteria == 1;
+    }
+}
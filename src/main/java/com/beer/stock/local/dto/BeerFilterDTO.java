@@ -0,0 +1,30 @@
+package com.beer.stock.local.dto;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+
+import com.beer.stock.local.enums.BeerType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerFilterDTO {
+
+    private BeerType type;
+
+    private String brand;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double maxFillRatio;
+}
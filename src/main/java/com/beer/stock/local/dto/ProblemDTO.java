@@ -0,0 +1,32 @@
+package com.beer.stock.local.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * RFC 7807 problem details body, extended with a machine-readable
+ * {@code code}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProblemDTO {
+
+    private String type;
+
+    private String title;
+
+    private int status;
+
+    private String detail;
+
+    private String instance;
+
+    private String code;
+}
@@ -0,0 +1,29 @@
+package com.beer.stock.local.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryStatsDTO {
+
+    private String repository;
+
+    private String method;
+
+    private String state;
+
+    private long count;
+
+    private double meanMillis;
+
+    private double maxMillis;
+
+    private Map<String, Double> percentileMillis;
+}
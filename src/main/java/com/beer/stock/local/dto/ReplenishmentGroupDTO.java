@@ -0,0 +1,25 @@
+package com.beer.stock.local.dto;
+
+import java.util.List;
+
+import com.beer.stock.local.enums.BeerType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentGroupDTO {
+
+    private String brand;
+
+    private BeerType type;
+
+    private long reorderQuantity;
+
+    private List<ReplenishmentItemDTO> items;
+}
@@ -0,0 +1,25 @@
+package com.beer.stock.local.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentItemDTO {
+
+    private Long id;
+
+    private String name;
+
+    private int quantity;
+
+    private int max;
+
+    private double dailyConsumption;
+
+    private int reorderQuantity;
+}
@@ -0,0 +1,28 @@
+package com.beer.stock.local.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentPlanDTO {
+
+    private Instant generatedAt;
+
+    private long catalogueRevision;
+
+    private int leadTimeDays;
+
+    private long beersScanned;
+
+    private long reorderQuantity;
+
+    private List<ReplenishmentGroupDTO> groups;
+}
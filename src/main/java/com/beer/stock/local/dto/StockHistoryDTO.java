@@ -0,0 +1,28 @@
+package com.beer.stock.local.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.beer.stock.local.history.HistoryResolution;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoryDTO {
+
+    private Long beerId;
+
+    private Instant from;
+
+    private Instant to;
+
+    private HistoryResolution resolution;
+
+    private List<StockHistoryPointDTO> points;
+}
@@ -0,0 +1,28 @@
+package com.beer.stock.local.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoryPointDTO {
+
+    // start of the bucket
+    private Instant time;
+
+    private int min;
+
+    private int max;
+
+    private double avg;
+
+    private int last;
+
+    private int samples;
+}
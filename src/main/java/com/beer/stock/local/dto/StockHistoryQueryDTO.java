@@ -0,0 +1,33 @@
+package com.beer.stock.local.dto;
+
+import java.time.Instant;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Pattern;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoryQueryDTO {
+
+    // defaults to one day before "to"
+    private Instant from;
+
+    // defaults to now
+    private Instant to;
+
+    // auto picks the finest resolution still retained for "from" that fits in a chart
+    @Pattern(regexp = "(?i)auto|raw|minute|hour|day")
+    private String resolution;
+
+    @AssertTrue(message = "from must be before to")
+    public boolean isOrderedRange() {
+        return from == null || to == null || from.isBefore(to);
+    }
+}
@@ -2,13 +2,19 @@ package com.beer.stock.local.entity;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
 
 import com.beer.stock.local.enums.BeerType;
+import com.beer.stock.local.history.StockHistoryListener;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,6 +22,12 @@ import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(StockHistoryListener.class)
+@Table(indexes = {
+		@Index(name = "idx_beer_type_brand", columnList = "type, brand"),
+		@Index(name = "idx_beer_brand", columnList = "brand"),
+		@Index(name = "idx_beer_quantity", columnList = "quantity"),
+		@Index(name = "idx_beer_fill_ratio", columnList = "fill_ratio") })
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
@@ -40,4 +52,14 @@ public class Beer {
 	@Column(nullable = false)
 	private BeerType type;
 
+	// quantity / max, stored so "low stock" filters can use an index
+	@Column(name = "fill_ratio", nullable = false)
+	private double fillRatio;
+
+	@PrePersist
+	@PreUpdate
+	void updateFillRatio() {
+		fillRatio = max > 0 ? (double) quantity / max : 1.0;
+	}
+
 }
@@ -0,0 +1,36 @@
+package com.beer.stock.local.entity;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "beer_change_event", indexes = @Index(name = "idx_beer_change_event_created_at", columnList = "created_at"))
+public class BeerChangeEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "beer_id", nullable = false)
+	private Long beerId;
+
+	// stamped by the database, so pruning never depends on the clock of the publishing node
+	@Column(name = "created_at", nullable = false, insertable = false, updatable = false,
+			columnDefinition = "TIMESTAMP DEFAULT LOCALTIMESTAMP")
+	private Instant createdAt;
+
+}
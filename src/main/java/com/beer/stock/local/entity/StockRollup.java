@@ -0,0 +1,77 @@
+package com.beer.stock.local.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.beer.stock.local.history.HistoryResolution;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One min/max/avg bucket of a beer's quantity history. Rows are written and
+ * read with plain SQL by the StockHistoryStore, since they are merged from
+ * inside the flush of the beer they describe; the mapping keeps the table in
+ * the schema Hibernate generates and validates.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(StockRollup.Key.class)
+@Table(name = "stock_rollup")
+public class StockRollup {
+
+	@Id
+	@Column(name = "beer_id")
+	private Long beerId;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(length = 8)
+	private HistoryResolution resolution;
+
+	// epoch millis, so buckets never depend on the time zone of the database
+	@Id
+	@Column(name = "bucket_start")
+	private Long bucketStart;
+
+	@Column(name = "min_quantity", nullable = false)
+	private int minQuantity;
+
+	@Column(name = "max_quantity", nullable = false)
+	private int maxQuantity;
+
+	@Column(name = "last_quantity", nullable = false)
+	private int lastQuantity;
+
+	@Column(nullable = false)
+	private int samples;
+
+	@Column(name = "quantity_sum", nullable = false)
+	private long quantitySum;
+
+	@Column(nullable = false)
+	private long consumed;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Long beerId;
+		private HistoryResolution resolution;
+		private Long bucketStart;
+	}
+
+}
@@ -4,14 +4,31 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerAlreadyRegisteredException extends Exception{
+public class BeerAlreadyRegisteredException extends BeerStockException {
 
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	private final String beerName;
+
 	public BeerAlreadyRegisteredException(String beerName) {
-        super(String.format("Beer with name %s already registered in the system.", beerName));
+        this.beerName = beerName;
     }
+
+	@Override
+	public String getErrorCode() {
+		return "BEER_ALREADY_REGISTERED";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.BAD_REQUEST;
+	}
+
+	@Override
+	public String getMessage() {
+		return "Beer with name " + beerName + " already registered in the system.";
+	}
 }
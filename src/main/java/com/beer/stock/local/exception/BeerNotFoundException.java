@@ -4,18 +4,38 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class BeerNotFoundException extends Exception {
+public class BeerNotFoundException extends BeerStockException {
 
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	private final String field;
+	private final Object value;
+
 	public BeerNotFoundException(String beerName) {
-        super(String.format("Beer with name %s not found in the system.", beerName));
+        this.field = "name";
+        this.value = beerName;
     }
 
     public BeerNotFoundException(Long id) {
-        super(String.format("Beer with id %s not found in the system.", id));
+        this.field = "id";
+        this.value = id;
     }
+
+	@Override
+	public String getErrorCode() {
+		return "BEER_NOT_FOUND";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.NOT_FOUND;
+	}
+
+	@Override
+	public String getMessage() {
+		return "Beer with " + field + " " + value + " not found in the system.";
+	}
 }
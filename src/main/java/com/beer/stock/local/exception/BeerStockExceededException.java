@@ -4,14 +4,33 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class BeerStockExceededException extends Exception {
+public class BeerStockExceededException extends BeerStockException {
 
     /**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	private final Long id;
+	private final int quantityToIncrement;
+
 	public BeerStockExceededException(Long id, int quantityToIncrement) {
-        super(String.format("Beers with %s ID to increment informed exceeds the max stock capacity: %s", id, quantityToIncrement));
+        this.id = id;
+        this.quantityToIncrement = quantityToIncrement;
     }
+
+	@Override
+	public String getErrorCode() {
+		return "BEER_STOCK_EXCEEDED";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.BAD_REQUEST;
+	}
+
+	@Override
+	public String getMessage() {
+		return "Beers with " + id + " ID to increment informed exceeds the max stock capacity: " + quantityToIncrement;
+	}
 }
@@ -0,0 +1,25 @@
+package com.beer.stock.local.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the expected-failure exceptions thrown on routine traffic (unknown
+ * names, duplicate registrations, over-capacity restocks). They carry no
+ * stack trace and build their message only when it is read, so throwing one
+ * costs about as much as allocating it.
+ */
+public abstract class BeerStockException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	protected BeerStockException() {
+		super(null, null, false, false);
+	}
+
+	public abstract String getErrorCode();
+
+	public abstract HttpStatus getStatus();
+
+	@Override
+	public abstract String getMessage();
+}
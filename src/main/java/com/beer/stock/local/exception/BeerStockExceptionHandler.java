@@ -0,0 +1,66 @@
+package com.beer.stock.local.exception;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.beer.stock.local.dto.ProblemDTO;
+
+/**
+ * Turns domain and validation failures into {@code application/problem+json}
+ * responses. {@code type} is a stable relative URI derived from the error
+ * code, so clients can switch on either.
+ */
+@RestControllerAdvice
+public class BeerStockExceptionHandler {
+
+    private static final String PROBLEM_TYPE_PREFIX = "/problems/";
+    private static final String VALIDATION_FAILED = "VALIDATION_FAILED";
+
+    @ExceptionHandler(BeerStockException.class)
+    public ResponseEntity<ProblemDTO> handleBeerStockException(BeerStockException exception,
+            HttpServletRequest request) {
+        return problem(exception.getStatus(), exception.getErrorCode(), exception.getMessage(), request);
+    }
+
+    // MethodArgumentNotValidException (request bodies) extends BindException (query parameters)
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<ProblemDTO> handleValidationException(BindException exception,
+            HttpServletRequest request) {
+        FieldError fieldError = exception.getFieldError();
+        String detail = fieldError != null
+                ? fieldError.getField() + " " + fieldError.getDefaultMessage()
+                : exception.getAllErrors().get(0).getDefaultMessage();
+        return problem(HttpStatus.BAD_REQUEST, VALIDATION_FAILED, detail, request);
+    }
+
+    // raised by Spring Data when a sort parameter names a property the entity does not have
+    @ExceptionHandler(PropertyReferenceException.class)
+    public ResponseEntity<ProblemDTO> handlePropertyReferenceException(PropertyReferenceException exception,
+            HttpServletRequest request) {
+        return problem(HttpStatus.BAD_REQUEST, VALIDATION_FAILED,
+                "unknown property " + exception.getPropertyName(), request);
+    }
+
+    private ResponseEntity<ProblemDTO> problem(HttpStatus status, String code, String detail,
+            HttpServletRequest request) {
+        ProblemDTO problem = ProblemDTO.builder()
+                .type(PROBLEM_TYPE_PREFIX + code.toLowerCase().replace('_', '-'))
+                .title(status.getReasonPhrase())
+                .status(status.value())
+                .detail(detail)
+                .instance(request.getRequestURI())
+                .code(code)
+                .build();
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem);
+    }
+}
@@ -0,0 +1,31 @@
+package com.beer.stock.local.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteUnavailableException extends BeerStockException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String reason;
+
+	public WriteUnavailableException(String reason) {
+		this.reason = reason;
+	}
+
+	@Override
+	public String getErrorCode() {
+		return "WRITE_UNAVAILABLE";
+	}
+
+	@Override
+	public HttpStatus getStatus() {
+		return HttpStatus.SERVICE_UNAVAILABLE;
+	}
+
+	@Override
+	public String getMessage() {
+		return "The write could not be accepted: " + reason;
+	}
+}
@@ -0,0 +1,21 @@
+package com.beer.stock.local.history;
+
+import java.time.Duration;
+
+public enum HistoryResolution {
+
+    RAW(1),
+    MINUTE(Duration.ofMinutes(1).toMillis()),
+    HOUR(Duration.ofHours(1).toMillis()),
+    DAY(Duration.ofDays(1).toMillis());
+
+    private final long bucketMillis;
+
+    HistoryResolution(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
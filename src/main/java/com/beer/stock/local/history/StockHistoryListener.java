@@ -0,0 +1,30 @@
+package com.beer.stock.local.history;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.entity.Beer;
+
+/**
+ * JPA listener of {@link Beer} feeding the {@link StockHistoryStore}. Hibernate
+ * obtains it from the Spring context and calls it once the beer's row has been
+ * written, so the sample is merged in the same transaction and a rolled-back
+ * change never reaches the history.
+ */
+@Component
+public class StockHistoryListener {
+
+    private final StockHistoryStore stockHistoryStore;
+
+    public StockHistoryListener(StockHistoryStore stockHistoryStore) {
+        this.stockHistoryStore = stockHistoryStore;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void recordQuantity(Beer beer) {
+        stockHistoryStore.record(beer.getId(), System.currentTimeMillis(), beer.getQuantity());
+    }
+}
@@ -0,0 +1,181 @@
+package com.beer.stock.local.history;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.dto.StockHistoryDTO;
+import com.beer.stock.local.dto.StockHistoryPointDTO;
+import com.beer.stock.local.dto.StockHistoryQueryDTO;
+import com.beer.stock.local.entity.StockRollup;
+
+/**
+ * Time series of every beer's quantity, kept in the {@link StockRollup} table
+ * of the beer's own database. Each sample is merged into raw, minute, hour and
+ * day min/max/avg buckets by the transaction that changed the quantity, so the
+ * history survives restarts and every instance sharing the database sees the
+ * commits of all the others. Each level is kept for its own retention, and a
+ * year of history is a few hundred day rows read by primary key range.
+ *
+ * <p>Rollups are not replicated, so reads run outside any transaction and
+ * always go to the primary.
+ */
+@Component
+public class StockHistoryStore {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+    private static final int MAX_AUTO_POINTS = 1000;
+    private static final HistoryResolution[] RESOLUTIONS = HistoryResolution.values();
+
+    private static final String SELECT_LATEST = "SELECT bucket_start, last_quantity FROM stock_rollup"
+            + " WHERE beer_id = ? AND resolution = ? ORDER BY bucket_start DESC LIMIT 1";
+    private static final String UPDATE_BUCKET = "UPDATE stock_rollup SET min_quantity = LEAST(min_quantity, ?),"
+            + " max_quantity = GREATEST(max_quantity, ?), last_quantity = ?, samples = samples + 1,"
+            + " quantity_sum = quantity_sum + ?, consumed = consumed + ?"
+            + " WHERE beer_id = ? AND resolution = ? AND bucket_start = ?";
+    private static final String INSERT_BUCKET = "INSERT INTO stock_rollup (beer_id, resolution, bucket_start,"
+            + " min_quantity, max_quantity, last_quantity, samples, quantity_sum, consumed)"
+            + " VALUES (?, ?, ?, ?, ?, ?, 1, ?, ?)";
+    private static final String DELETE_EXPIRED = "DELETE FROM stock_rollup"
+            + " WHERE beer_id = ? AND resolution = ? AND bucket_start < ?";
+    private static final String SELECT_BUCKETS = "SELECT bucket_start, min_quantity, max_quantity, last_quantity,"
+            + " samples, quantity_sum FROM stock_rollup"
+            + " WHERE beer_id = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+    private static final String SELECT_CONSUMPTION = "SELECT beer_id, MIN(bucket_start),"
+            + " SUM(CASE WHEN bucket_start >= ? THEN consumed ELSE 0 END) FROM stock_rollup"
+            + " WHERE resolution = ? AND bucket_start >= ? GROUP BY beer_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<HistoryResolution, Long> retentionMillis = new EnumMap<>(HistoryResolution.class);
+
+    public StockHistoryStore(JdbcTemplate jdbcTemplate,
+            @Value("${beerstock.history.raw-retention:1d}") Duration rawRetention,
+            @Value("${beerstock.history.minute-retention:7d}") Duration minuteRetention,
+            @Value("${beerstock.history.hour-retention:90d}") Duration hourRetention,
+            @Value("${beerstock.history.day-retention:730d}") Duration dayRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        retentionMillis.put(HistoryResolution.RAW, rawRetention.toMillis());
+        retentionMillis.put(HistoryResolution.MINUTE, minuteRetention.toMillis());
+        retentionMillis.put(HistoryResolution.HOUR, hourRetention.toMillis());
+        retentionMillis.put(HistoryResolution.DAY, dayRetention.toMillis());
+    }
+
+    /**
+     * Merges a sample into every level. Must run in the transaction that wrote
+     * the quantity: the beer's row lock then serializes the samples of one
+     * beer across instances, so the consumption is taken from the quantity the
+     * previous commit left.
+     */
+    public void record(Long beerId, long time, int quantity) {
+        List<long[]> latest = jdbcTemplate.query(SELECT_LATEST,
+                (rs, rowNum) -> new long[] { rs.getLong(1), rs.getInt(2) },
+                beerId, HistoryResolution.DAY.name());
+        long consumedQuantity = 0;
+        if (!latest.isEmpty()) {
+            long lastQuantity = latest.get(0)[1];
+            if (quantity == lastQuantity) {
+                return;
+            }
+            // instances' clocks differ, and a sample must never land before the day holding the last one
+            time = Math.max(time, latest.get(0)[0]);
+            consumedQuantity = Math.max(0, lastQuantity - quantity);
+        }
+        for (HistoryResolution resolution : RESOLUTIONS) {
+            long start = time - Math.floorMod(time, resolution.getBucketMillis());
+            if (jdbcTemplate.update(UPDATE_BUCKET, quantity, quantity, quantity, quantity, consumedQuantity,
+                    beerId, resolution.name(), start) == 0) {
+                jdbcTemplate.update(INSERT_BUCKET, beerId, resolution.name(), start,
+                        quantity, quantity, quantity, quantity, consumedQuantity);
+                // a level opens a bucket at most once per bucket length, so expired ones are dropped here
+                jdbcTemplate.update(DELETE_EXPIRED, beerId, resolution.name(), time - retentionMillis.get(resolution));
+            }
+        }
+    }
+
+    /**
+     * Drops the history of deleted beers; runs in the transaction deleting them.
+     */
+    public void forget(Collection<Long> beerIds) {
+        if (beerIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(beerIds.size(), "?"));
+        jdbcTemplate.update("DELETE FROM stock_rollup WHERE beer_id IN (" + placeholders + ")", beerIds.toArray());
+    }
+
+    public StockHistoryDTO history(Long beerId, StockHistoryQueryDTO query) {
+        return history(beerId, query, System.currentTimeMillis());
+    }
+
+    StockHistoryDTO history(Long beerId, StockHistoryQueryDTO query, long now) {
+        long to = query.getTo() != null ? query.getTo().toEpochMilli() : now;
+        long from = query.getFrom() != null ? query.getFrom().toEpochMilli() : to - DEFAULT_RANGE.toMillis();
+        HistoryResolution resolution = query.getResolution() == null || "auto".equalsIgnoreCase(query.getResolution())
+                ? autoResolution(from, to, now)
+                : HistoryResolution.valueOf(query.getResolution().toUpperCase(Locale.ROOT));
+        // buckets of beers that stopped changing are only deleted on their next sample
+        long oldest = Math.max(from - Math.floorMod(from, resolution.getBucketMillis()),
+                now - retentionMillis.get(resolution));
+        List<StockHistoryPointDTO> points = jdbcTemplate.query(SELECT_BUCKETS,
+                (rs, rowNum) -> StockHistoryPointDTO.builder()
+                        .time(Instant.ofEpochMilli(rs.getLong(1)))
+                        .min(rs.getInt(2))
+                        .max(rs.getInt(3))
+                        .last(rs.getInt(4))
+                        .samples(rs.getInt(5))
+                        .avg((double) rs.getLong(6) / rs.getInt(5))
+                        .build(),
+                beerId, resolution.name(), oldest, to);
+        return StockHistoryDTO.builder()
+                .beerId(beerId)
+                .from(Instant.ofEpochMilli(from))
+                .to(Instant.ofEpochMilli(to))
+                .resolution(resolution)
+                .points(points)
+                .build();
+    }
+
+    public Map<Long, Double> dailyConsumptions(Duration window) {
+        return dailyConsumptions(window, System.currentTimeMillis());
+    }
+
+    /**
+     * Average quantity consumed per day over the window by every beer that
+     * consumed anything, from the hourly rollups, in one grouped scan. A
+     * history shorter than the window is averaged over its own length, but
+     * never over less than a day.
+     */
+    Map<Long, Double> dailyConsumptions(Duration window, long now) {
+        long from = now - window.toMillis();
+        long dayMillis = HistoryResolution.DAY.getBucketMillis();
+        Map<Long, Double> consumptions = new HashMap<>();
+        jdbcTemplate.query(SELECT_CONSUMPTION, rs -> {
+            long consumed = rs.getLong(3);
+            if (consumed > 0) {
+                long observedMillis = Math.max(dayMillis, now - Math.max(from, rs.getLong(2)));
+                consumptions.put(rs.getLong(1), (double) consumed * dayMillis / observedMillis);
+            }
+        }, from, HistoryResolution.HOUR.name(), now - retentionMillis.get(HistoryResolution.HOUR));
+        return consumptions;
+    }
+
+    private HistoryResolution autoResolution(long from, long to, long now) {
+        for (HistoryResolution resolution : RESOLUTIONS) {
+            boolean retained = now - retentionMillis.get(resolution) <= from;
+            if (retained && (to - from) / resolution.getBucketMillis() <= MAX_AUTO_POINTS) {
+                return resolution;
+            }
+        }
+        return HistoryResolution.DAY;
+    }
+}
@@ -0,0 +1,84 @@
+package com.beer.stock.local.replica;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Pins the reads of a client to the primary for a short window after that
+ * client's last mutation. The time of the mutation travels with the client in
+ * a cookie rather than living in this instance, so the pin also holds when the
+ * next read lands on another instance whose replicas, or whose view of the
+ * outbox, have not caught up yet. Pinned reads also skip the in-process beer
+ * cache, the catalogue snapshot and shared single-flight lookups, which may
+ * lag just as far. Reads served by the instance that took the write are
+ * already covered by the replica lag check.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_COOKIE = "beerstock-last-write";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isRead(request)) {
+            // set before the body is written; a failed write only pins the client's reads needlessly
+            response.addCookie(lastWriteCookie(System.currentTimeMillis()));
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (wroteRecently(request, System.currentTimeMillis())) {
+            ReplicaRoutingContext.pinPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request, long now) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    long lastWrite = Long.parseLong(cookie.getValue());
+                    return now - lastWrite < window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Cookie lastWriteCookie(long now) {
+        Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+        cookie.setPath("/api");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.getSeconds() + 1));
+        return cookie;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                || HttpMethod.HEAD.matches(request.getMethod())
+                || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+}
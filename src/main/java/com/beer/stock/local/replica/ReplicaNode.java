@@ -0,0 +1,60 @@
+package com.beer.stock.local.replica;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A replica datasource together with how far it has caught up with the
+ * changes published on this node's invalidation bus.
+ */
+public class ReplicaNode {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private volatile long syncedRevision;
+    private volatile boolean synced;
+
+    public ReplicaNode(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Number of published changes this replica has not applied yet, or
+     * {@code Long.MAX_VALUE} while it is not synced at all. Relies on the bus
+     * revision growing by exactly one per delivered change.
+     */
+    public long lag(long revision) {
+        if (!synced) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, revision - syncedRevision - appliedChanges.get());
+    }
+
+    void markSynced(long revision) {
+        appliedChanges.set(0);
+        syncedRevision = revision;
+        synced = true;
+    }
+
+    void markUnsynced() {
+        synced = false;
+    }
+
+    void changeApplied(long revision) {
+        // changes already contained in the last full copy were counted by markSynced
+        if (revision > syncedRevision) {
+            appliedChanges.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.beer.stock.local.replica;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<String> urls = new ArrayList<>();
+
+    private String username = "sa";
+
+    private String password = "";
+
+    private int maximumPoolSize = 8;
+
+    // copy committed changes from the primary into the replicas; turn off when the database replicates itself
+    private boolean replicate = true;
+
+    // reads of a client that wrote within this window go to the primary; zero disables it
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+}
@@ -0,0 +1,122 @@
+package com.beer.stock.local.replica;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.beer.stock.local.cache.BeerInvalidationBus;
+
+/**
+ * The application's own replication hook, for replicas that the database does
+ * not keep in sync by itself (such as local H2 instances). Every change on the
+ * {@link BeerInvalidationBus} re-reads the beer row from the primary and
+ * upserts or deletes it on each replica, in publication order, on a single
+ * background thread. {@link #start()} first copies the whole table.
+ *
+ * <p>Rows are written with plain UPDATE and INSERT statements, so the same
+ * replication works on H2 and PostgreSQL.
+ */
+public class ReplicaReplicator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaReplicator.class);
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final List<ReplicaNode> replicas;
+    private final BeerInvalidationBus invalidationBus;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-replicator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaReplicator(DataSource primary, List<ReplicaNode> replicas, BeerInvalidationBus invalidationBus) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.replicas = replicas;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe((beerId, revision) -> executor.execute(() -> replicate(beerId, revision)));
+    }
+
+    public void start() {
+        replicas.forEach(replica -> executor.execute(() -> copyAll(replica)));
+    }
+
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void replicate(Long beerId, long revision) {
+        List<Map<String, Object>> rows = primaryJdbcTemplate.queryForList("SELECT * FROM beer WHERE id = ?", beerId);
+        for (ReplicaNode replica : replicas) {
+            try {
+                JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(replica.getDataSource());
+                if (rows.isEmpty()) {
+                    replicaJdbcTemplate.update("DELETE FROM beer WHERE id = ?", beerId);
+                } else {
+                    upsert(replicaJdbcTemplate, rows.get(0));
+                }
+                replica.changeApplied(revision);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not replicate beer {} to {}, resyncing it", beerId, replica.getName(), e);
+                replica.markUnsynced();
+                executor.execute(() -> copyAll(replica));
+            }
+        }
+    }
+
+    private void copyAll(ReplicaNode replica) {
+        long revision = invalidationBus.getRevision();
+        try {
+            List<Map<String, Object>> rows = primaryJdbcTemplate.queryForList("SELECT * FROM beer");
+            JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(replica.getDataSource());
+            new TransactionTemplate(new DataSourceTransactionManager(replica.getDataSource()))
+                    .executeWithoutResult(status -> {
+                        replicaJdbcTemplate.update("DELETE FROM beer");
+                        rows.forEach(row -> insert(replicaJdbcTemplate, row));
+                    });
+            replica.markSynced(revision);
+            LOGGER.info("Copied {} beers to {}", rows.size(), replica.getName());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not copy beers to {}, reads stay on the primary", replica.getName(), e);
+        }
+    }
+
+    // single-threaded, so nothing can insert the row between the update and the insert
+    private static void upsert(JdbcTemplate jdbcTemplate, Map<String, Object> row) {
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        Object id = null;
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            if ("id".equalsIgnoreCase(column.getKey())) {
+                id = column.getValue();
+            } else {
+                columns.add(column.getKey() + " = ?");
+                values.add(column.getValue());
+            }
+        }
+        values.add(id);
+        String sql = "UPDATE beer SET " + String.join(", ", columns) + " WHERE id = ?";
+        if (jdbcTemplate.update(sql, values.toArray()) == 0) {
+            insert(jdbcTemplate, row);
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, Map<String, Object> row) {
+        List<String> columns = new ArrayList<>(row.keySet());
+        String sql = "INSERT INTO beer (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        jdbcTemplate.update(sql, row.values().toArray());
+    }
+}
@@ -0,0 +1,25 @@
+package com.beer.stock.local.replica;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary, used
+ * for read-your-writes stickiness.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+}
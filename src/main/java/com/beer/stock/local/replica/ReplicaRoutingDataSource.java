@@ -0,0 +1,95 @@
+package com.beer.stock.local.replica;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.beer.stock.local.cache.BeerInvalidationBus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary. Only replicas that have applied every change this node has
+ * published are eligible, so caches reloading right after an invalidation
+ * never read a row older than the change that invalidated them; when none is
+ * eligible, or the chosen one refuses a connection, the read falls back to the
+ * primary.
+ *
+ * <p>The read-only flag is only known once the transaction has started, so
+ * this datasource must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primary;
+    private final List<ReplicaNode> replicas;
+    private final BeerInvalidationBus invalidationBus;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaNode> replicas,
+            BeerInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.invalidationBus = invalidationBus;
+        this.replicaReads = meterRegistry.counter("beerstock.replica.reads", "target", "replica");
+        this.primaryReads = meterRegistry.counter("beerstock.replica.reads", "target", "primary");
+        setDefaultTargetDataSource(primary);
+        setTargetDataSources(Collections.emptyMap());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return null;
+    }
+
+    @Override
+    protected DataSource determineTargetDataSource() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary;
+        }
+        ReplicaNode replica = ReplicaRoutingContext.isPrimaryPinned() ? null : pickReplica();
+        if (replica == null) {
+            primaryReads.increment();
+            return primary;
+        }
+        replicaReads.increment();
+        return replica.getDataSource();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            if (target == primary) {
+                throw e;
+            }
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private ReplicaNode pickReplica() {
+        long revision = invalidationBus.getRevision();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaNode replica = replicas.get((start + i) % replicas.size());
+            if (replica.lag(revision) == 0) {
+                return replica;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.beer.stock.local.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.beer.stock.local.entity.BeerChangeEvent;
+
+@Repository
+public interface BeerChangeEventRepository extends JpaRepository<BeerChangeEvent, Long> {
+
+	List<BeerChangeEvent> findByIdGreaterThanOrderByIdAsc(Long id);
+
+	@Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+	Instant currentTimestamp();
+
+	@Modifying
+	@Query("delete from BeerChangeEvent e where e.createdAt < :createdAt")
+	int deleteByCreatedAtBefore(@Param("createdAt") Instant createdAt);
+
+}
@@ -1,15 +1,48 @@
 package com.beer.stock.local.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.enums.BeerType;
 
+// declared queries run read-only, so they can be served by a replica
 @Repository
-public interface BeerRepository extends JpaRepository<Beer, Long>{
+@Transactional(readOnly = true)
+public interface BeerRepository extends JpaRepository<Beer, Long>, JpaSpecificationExecutor<Beer> {
 	
 	Optional<Beer> findByName(String name);
 
+	// keyset pagination: pass the last id of the previous chunk, starting from 0
+	@Query("select new com.beer.stock.local.repository.BeerStockLevel(b.id, b.name, b.brand, b.type, b.quantity, b.max) "
+			+ "from Beer b where b.id > :afterId order by b.id")
+	List<BeerStockLevel> findStockLevelsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query("select b.id from Beer b where b.type = :type and b.id > :afterId order by b.id")
+	List<Long> findIdsByTypeAfter(@Param("type") BeerType type, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query("select b.id from Beer b where b.brand = :brand and b.id > :afterId order by b.id")
+	List<Long> findIdsByBrandAfter(@Param("brand") String brand, @Param("afterId") Long afterId, Pageable pageable);
+
+	// single DELETE statement, unlike deleteById which loads the entity first; returns the deleted row count
+	@Transactional
+	@Modifying
+	@Query("delete from Beer b where b.id = :id")
+	int removeById(@Param("id") Long id);
+
+	@Transactional
+	@Modifying
+	@Query("delete from Beer b where b.id in :ids")
+	int removeByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,46 @@
+package com.beer.stock.local.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.beer.stock.local.dto.BeerFilterDTO;
+import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.enums.BeerType;
+
+public final class BeerSpecifications {
+
+    private BeerSpecifications() {
+    }
+
+    public static Specification<Beer> matching(BeerFilterDTO filter) {
+        Specification<Beer> specification = Specification.where(null);
+        if (filter.getType() != null) {
+            specification = specification.and(hasType(filter.getType()));
+        }
+        if (filter.getBrand() != null) {
+            specification = specification.and(hasBrand(filter.getBrand()));
+        }
+        if (filter.getMinQuantity() != null) {
+            specification = specification.and(quantityAtLeast(filter.getMinQuantity()));
+        }
+        if (filter.getMaxFillRatio() != null) {
+            specification = specification.and(fillRatioAtMost(filter.getMaxFillRatio()));
+        }
+        return specification;
+    }
+
+    public static Specification<Beer> hasType(BeerType type) {
+        return (root, query, builder) -> builder.equal(root.get("type"), type);
+    }
+
+    public static Specification<Beer> hasBrand(String brand) {
+        return (root, query, builder) -> builder.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Beer> quantityAtLeast(int minQuantity) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("quantity"), minQuantity);
+    }
+
+    public static Specification<Beer> fillRatioAtMost(double maxFillRatio) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("fillRatio"), maxFillRatio);
+    }
+}
@@ -0,0 +1,28 @@
+package com.beer.stock.local.repository;
+
+import com.beer.stock.local.enums.BeerType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Read-only projection of the stock columns, used by bulk scans that do not
+ * need managed {@code Beer} entities.
+ */
+@Data
+@AllArgsConstructor
+public class BeerStockLevel {
+
+	private Long id;
+
+	private String name;
+
+	private String brand;
+
+	private BeerType type;
+
+	private int quantity;
+
+	private int max;
+
+}
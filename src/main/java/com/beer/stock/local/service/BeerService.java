@@ -1,19 +1,39 @@
 package com.beer.stock.local.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.beer.stock.local.cache.BeerCache;
+import com.beer.stock.local.cache.BeerInvalidationBus;
+import com.beer.stock.local.cache.CatalogueSnapshot;
+import com.beer.stock.local.cache.Revisioned;
+import com.beer.stock.local.concurrent.SingleFlight;
 import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.dto.BeerDeleteFilterDTO;
+import com.beer.stock.local.dto.BeerFilterDTO;
 import com.beer.stock.local.entity.Beer;
 import com.beer.stock.local.exception.BeerAlreadyRegisteredException;
 import com.beer.stock.local.exception.BeerNotFoundException;
 import com.beer.stock.local.exception.BeerStockExceededException;
+import com.beer.stock.local.history.StockHistoryStore;
 import com.beer.stock.local.mapper.BeerMapper;
 import com.beer.stock.local.repository.BeerRepository;
+import com.beer.stock.local.replica.ReplicaRoutingContext;
+import com.beer.stock.local.repository.BeerSpecifications;
+import com.beer.stock.local.tenancy.TenantContext;
+import com.beer.stock.local.write.WriteCoordinator;
 
 import lombok.AllArgsConstructor;
 
@@ -21,36 +41,115 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    // rows deleted per transaction by the bulk deletes
+    private static final int BULK_DELETE_CHUNK_SIZE = 500;
+
     private BeerRepository beerRepository;
     private final BeerMapper beerMapper; 
+    private final BeerCache beerCache;
+    private final BeerInvalidationBus invalidationBus;
+    private final SingleFlight<String, Revisioned<Optional<Beer>>> findByNameSingleFlight;
+    private final CatalogueSnapshot catalogueSnapshot;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteCoordinator writeCoordinator;
+    private final StockHistoryStore stockHistoryStore;
     
-    //POST
+    //POST, returns null when the durability mode acknowledges writes before they commit
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
-        verifyIfIsAlreadyRegistered(beerDTO.getName());
-        Beer beer = beerMapper.toModel(beerDTO);
-        Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        return writeCoordinator.execute(() -> {
+            verifyIfIsAlreadyRegistered(beerDTO.getName());
+            Beer beer = beerMapper.toModel(beerDTO);
+            Beer savedBeer = beerRepository.save(beer);
+            invalidationBus.publish(savedBeer.getId());
+            return beerMapper.toDTO(savedBeer);
+        });
     }
 
     //GET By Name
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
-                .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
+        if (ReplicaRoutingContext.isPrimaryPinned()) {
+            // a client that just wrote must not be served this instance's cache, nor a lookup another caller
+            // started on a replica
+            long revisionBeforeLoad = beerCache.currentRevision();
+            BeerDTO foundBeerDTO = beerMapper.toDTO(beerRepository.findByName(name)
+                    .orElseThrow(() -> new BeerNotFoundException(name)));
+            beerCache.put(foundBeerDTO, revisionBeforeLoad);
+            return foundBeerDTO;
+        }
+        Optional<BeerDTO> cachedBeer = beerCache.findByName(name);
+        if (cachedBeer.isPresent()) {
+            return cachedBeer.get();
+        }
+        // the revision is read by whoever runs the query, so callers joining late cache under the leader's revision
+        Revisioned<Optional<Beer>> lookup = findByNameSingleFlight.execute(TenantContext.scopedKey(name),
+                () -> new Revisioned<>(beerCache.currentRevision(), beerRepository.findByName(name)));
+        Beer foundBeer = lookup.getValue().orElseThrow(() -> new BeerNotFoundException(name));
+        BeerDTO foundBeerDTO = beerMapper.toDTO(foundBeer);
+        beerCache.put(foundBeerDTO, lookup.getRevision());
+        return foundBeerDTO;
     }
 
     //GET
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
-                .stream()
-                .map(beerMapper::toDTO)
-                .collect(Collectors.toList());
+        if (ReplicaRoutingContext.isPrimaryPinned()) {
+            return beerRepository.findAll(Sort.by("id")).stream().map(beerMapper::toDTO).collect(Collectors.toList());
+        }
+        return catalogueSnapshot.get();
+    }
+
+    //GET filtered, sorted and paginated
+    public Page<BeerDTO> search(BeerFilterDTO filter, Pageable pageable) {
+        return beerRepository.findAll(BeerSpecifications.matching(filter), pageable)
+                .map(beerMapper::toDTO);
+    }
+
+    //DELETE, returns false when the durability mode acknowledges writes before they commit
+    public boolean deleteById(Long id) throws BeerNotFoundException {
+        Boolean deleted = writeCoordinator.execute(() -> {
+            if (beerRepository.removeById(id) == 0) {
+                throw new BeerNotFoundException(id);
+            }
+            stockHistoryStore.forget(Collections.singletonList(id));
+            invalidationBus.publish(id);
+            return Boolean.TRUE;
+        });
+        return deleted != null;
     }
 
-    //DELETE
-    public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
-        beerRepository.deleteById(id);
+    //DELETE in bulk, one transaction per chunk so a large purge never holds one long transaction
+    public long deleteAll(BeerDeleteFilterDTO filter) {
+        long deleted = 0;
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(filter.getIds()));
+            for (int from = 0; from < ids.size(); from += BULK_DELETE_CHUNK_SIZE) {
+                deleted += deleteChunk(ids.subList(from, Math.min(ids.size(), from + BULK_DELETE_CHUNK_SIZE)));
+            }
+            return deleted;
+        }
+        PageRequest chunk = PageRequest.of(0, BULK_DELETE_CHUNK_SIZE);
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = filter.getType() != null
+                    ? beerRepository.findIdsByTypeAfter(filter.getType(), afterId, chunk)
+                    : beerRepository.findIdsByBrandAfter(filter.getBrand(), afterId, chunk);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            deleted += deleteChunk(ids);
+        } while (ids.size() == BULK_DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int count = beerRepository.removeByIdIn(ids);
+            stockHistoryStore.forget(ids);
+            ids.forEach(invalidationBus::publish);
+            return count;
+        });
+        return deleted != null ? deleted : 0;
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
@@ -65,18 +164,18 @@ public class BeerService {
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
+    //PATCH, returns null when the durability mode acknowledges writes before they commit
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrementStock = verifyIfExists(id);
-        int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
-            Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-            return beerMapper.toDTO(incrementedBeerStock);
-        }
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        return writeCoordinator.execute(() -> {
+            Beer beerToIncrementStock = verifyIfExists(id);
+            int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
+            if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
+                beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
+                Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
+                invalidationBus.publish(id);
+                return beerMapper.toDTO(incrementedBeerStock);
+            }
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        });
     }
-
-
-
-
 }
@@ -0,0 +1,89 @@
+package com.beer.stock.local.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.cache.CatalogueSnapshot.Catalogue;
+import com.beer.stock.local.config.CatalogueHttpMessageConverter;
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.exception.BeerNotFoundException;
+
+/**
+ * Drives the read paths of {@link BeerService} before the application reports
+ * itself ready. Runners execute before the readiness state switches to
+ * ACCEPTING_TRAFFIC, so the readiness probe only turns green once the JIT has
+ * seen the hot paths. The catalogue is written through the same
+ * {@link CatalogueHttpMessageConverter} that serves {@code GET /api/v1/beers},
+ * into a discarding body. Only read operations are exercised; stock is never
+ * touched.
+ */
+@Component
+@ConditionalOnProperty(name = "beerstock.warmup.enabled", havingValue = "true")
+public class BeerServiceWarmup implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeerServiceWarmup.class);
+    private static final String UNKNOWN_BEER_NAME = "__warmup__";
+
+    private final BeerService beerService;
+    private final CatalogueHttpMessageConverter catalogueHttpMessageConverter;
+    private final int iterations;
+
+    public BeerServiceWarmup(BeerService beerService, CatalogueHttpMessageConverter catalogueHttpMessageConverter,
+            @Value("${beerstock.warmup.iterations:1000}") int iterations) {
+        this.beerService = beerService;
+        this.catalogueHttpMessageConverter = catalogueHttpMessageConverter;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            List<BeerDTO> beers = beerService.listAll();
+            if (beers instanceof Catalogue) {
+                catalogueHttpMessageConverter.write((Catalogue) beers, MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+            }
+            try {
+                beerService.findByName(UNKNOWN_BEER_NAME);
+            } catch (BeerNotFoundException expected) {
+                // the not-found path is as hot as the found one on real traffic
+            }
+        }
+        LOGGER.info("Warm-up of {} iterations finished in {} ms", iterations, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.beer.stock.local.service;
+
+/**
+ * Source of each beer's recent consumption, in units per day.
+ */
+public interface ConsumptionRateProvider {
+
+    double dailyConsumption(Long beerId);
+}
@@ -0,0 +1,83 @@
+package com.beer.stock.local.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.beer.stock.local.history.StockHistoryStore;
+import com.beer.stock.local.tenancy.TenantContext;
+import com.beer.stock.local.tenancy.TenantPoolEvictedEvent;
+
+/**
+ * Consumption derived from the stock decreases recorded in the
+ * {@link StockHistoryStore} over a trailing window. Beers without recorded
+ * decreases consume nothing, so plans simply top their stock up.
+ *
+ * <p>The rates of all beers are read in one scan and kept per tenant for the
+ * plan cache TTL, so planning a catalogue never queries the history per beer.
+ */
+@Component
+public class HistoryConsumptionRateProvider implements ConsumptionRateProvider {
+
+    private final StockHistoryStore stockHistoryStore;
+    private final Duration window;
+    private final long refreshNanos;
+    private final Map<String, CachedRates> cachedRates = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    public HistoryConsumptionRateProvider(StockHistoryStore stockHistoryStore,
+            @Value("${beerstock.replenishment.consumption-window:7d}") Duration window,
+            @Value("${beerstock.replenishment.cache-ttl:60s}") Duration refresh) {
+        this.stockHistoryStore = stockHistoryStore;
+        this.window = window;
+        this.refreshNanos = refresh.toNanos();
+    }
+
+    @Override
+    public double dailyConsumption(Long beerId) {
+        return rates().getOrDefault(beerId, 0.0);
+    }
+
+    @EventListener
+    public void onTenantPoolEvicted(TenantPoolEvictedEvent event) {
+        String tenantKey = TenantContext.scopedKey(event.getTenant(), "");
+        cachedRates.remove(tenantKey);
+        loadLocks.remove(tenantKey);
+    }
+
+    private Map<Long, Double> rates() {
+        String tenantKey = TenantContext.scopedKey("");
+        CachedRates cached = cachedRates.get(tenantKey);
+        if (isFresh(cached)) {
+            return cached.rates;
+        }
+        // planner chunks ask concurrently, and only one of them scans the history
+        synchronized (loadLocks.computeIfAbsent(tenantKey, key -> new Object())) {
+            cached = cachedRates.get(tenantKey);
+            if (!isFresh(cached)) {
+                cached = new CachedRates(System.nanoTime(), stockHistoryStore.dailyConsumptions(window));
+                cachedRates.put(tenantKey, cached);
+            }
+            return cached.rates;
+        }
+    }
+
+    private boolean isFresh(CachedRates cached) {
+        return cached != null && System.nanoTime() - cached.loadedAt < refreshNanos;
+    }
+
+    private static final class CachedRates {
+
+        private final long loadedAt;
+        private final Map<Long, Double> rates;
+
+        private CachedRates(long loadedAt, Map<Long, Double> rates) {
+            this.loadedAt = loadedAt;
+            this.rates = rates;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.beer.stock.local.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.beer.stock.local.cache.BeerInvalidationBus;
+import com.beer.stock.local.dto.ReplenishmentGroupDTO;
+import com.beer.stock.local.dto.ReplenishmentItemDTO;
+import com.beer.stock.local.dto.ReplenishmentPlanDTO;
+import com.beer.stock.local.enums.BeerType;
+import com.beer.stock.local.repository.BeerRepository;
+import com.beer.stock.local.repository.BeerStockLevel;
+import com.beer.stock.local.tenancy.TenantContext;
+import com.beer.stock.local.tenancy.TenantPoolEvictedEvent;
+
+/**
+ * Computes reorder suggestions grouped by brand and {@link BeerType}.
+ *
+ * <p>Stock levels are read in id-ordered chunks (keyset pagination over a
+ * projection, no managed entities) and each chunk is planned on the common
+ * fork-join pool while the next one is being fetched. The resulting plan is
+ * cached until the catalogue revision on the {@link BeerInvalidationBus}
+ * moves or the cache TTL expires, since consumption rates drift over time.
+ * Plans are cached and computed per tenant of the {@link TenantContext}: a
+ * slow scan for one tenant never holds up another tenant's plan, and a
+ * tenant's cached plan is dropped when its pool is evicted.
+ */
+@Service
+public class ReplenishmentPlanner {
+
+    private final BeerRepository beerRepository;
+    private final ConsumptionRateProvider consumptionRateProvider;
+    private final BeerInvalidationBus invalidationBus;
+    private final int leadTimeDays;
+    private final double reorderPoint;
+    private final int chunkSize;
+    private final Duration cacheTtl;
+    private final Map<String, CachedPlan> cachedPlans = new ConcurrentHashMap<>();
+    private final Map<String, Object> planLocks = new ConcurrentHashMap<>();
+
+    public ReplenishmentPlanner(BeerRepository beerRepository, ConsumptionRateProvider consumptionRateProvider,
+            BeerInvalidationBus invalidationBus,
+            @Value("${beerstock.replenishment.lead-time-days:7}") int leadTimeDays,
+            @Value("${beerstock.replenishment.reorder-point:0.5}") double reorderPoint,
+            @Value("${beerstock.replenishment.chunk-size:10000}") int chunkSize,
+            @Value("${beerstock.replenishment.cache-ttl:60s}") Duration cacheTtl) {
+        this.beerRepository = beerRepository;
+        this.consumptionRateProvider = consumptionRateProvider;
+        this.invalidationBus = invalidationBus;
+        this.leadTimeDays = leadTimeDays;
+        this.reorderPoint = reorderPoint;
+        this.chunkSize = chunkSize;
+        this.cacheTtl = cacheTtl;
+    }
+
+    public ReplenishmentPlanDTO plan() {
+        String tenantKey = TenantContext.scopedKey("");
+        CachedPlan cached = cachedPlans.get(tenantKey);
+        if (isFresh(cached)) {
+            return cached.plan;
+        }
+        synchronized (planLocks.computeIfAbsent(tenantKey, key -> new Object())) {
+            cached = cachedPlans.get(tenantKey);
+            if (isFresh(cached)) {
+                return cached.plan;
+            }
+            long revision = invalidationBus.getRevision();
+            cached = new CachedPlan(revision, compute(revision));
+            cachedPlans.put(tenantKey, cached);
+            return cached.plan;
+        }
+    }
+
+    @EventListener
+    public void onTenantPoolEvicted(TenantPoolEvictedEvent event) {
+        String tenantKey = TenantContext.scopedKey(event.getTenant(), "");
+        cachedPlans.remove(tenantKey);
+        planLocks.remove(tenantKey);
+    }
+
+    private boolean isFresh(CachedPlan cached) {
+        return cached != null
+                && cached.revision == invalidationBus.getRevision()
+                && cached.plan.getGeneratedAt().plus(cacheTtl).isAfter(Instant.now());
+    }
+
+    private ReplenishmentPlanDTO compute(long revision) {
+        List<CompletableFuture<Map<GroupKey, ReplenishmentGroupDTO>>> chunkPlans = new ArrayList<>();
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        long afterId = 0;
+        long scanned = 0;
+        // consumption rates are tenant-scoped, and chunks are planned on pool threads
+        String tenant = TenantContext.getTenant();
+        List<BeerStockLevel> stockLevels;
+        do {
+            stockLevels = beerRepository.findStockLevelsAfter(afterId, chunk);
+            if (stockLevels.isEmpty()) {
+                break;
+            }
+            afterId = stockLevels.get(stockLevels.size() - 1).getId();
+            scanned += stockLevels.size();
+            List<BeerStockLevel> chunkLevels = stockLevels;
+            chunkPlans.add(CompletableFuture.supplyAsync(() -> planChunk(tenant, chunkLevels), ForkJoinPool.commonPool()));
+        } while (stockLevels.size() == chunkSize);
+
+        // merged in chunk order, so the items of every group stay sorted by id
+        Map<GroupKey, ReplenishmentGroupDTO> groups = new HashMap<>();
+        for (CompletableFuture<Map<GroupKey, ReplenishmentGroupDTO>> chunkPlan : chunkPlans) {
+            chunkPlan.join().forEach((key, group) -> groups.merge(key, group, ReplenishmentPlanner::mergeGroups));
+        }
+        List<ReplenishmentGroupDTO> sortedGroups = groups.values().stream()
+                .sorted(Comparator.comparing(ReplenishmentGroupDTO::getBrand)
+                        .thenComparing(ReplenishmentGroupDTO::getType))
+                .collect(Collectors.toList());
+        return ReplenishmentPlanDTO.builder()
+                .generatedAt(Instant.now())
+                .catalogueRevision(revision)
+                .leadTimeDays(leadTimeDays)
+                .beersScanned(scanned)
+                .reorderQuantity(sortedGroups.stream().mapToLong(ReplenishmentGroupDTO::getReorderQuantity).sum())
+                .groups(sortedGroups)
+                .build();
+    }
+
+    private Map<GroupKey, ReplenishmentGroupDTO> planChunk(String tenant, List<BeerStockLevel> stockLevels) {
+        String callerTenant = TenantContext.getTenant();
+        TenantContext.setTenant(tenant);
+        try {
+            return planChunk(stockLevels);
+        } finally {
+            TenantContext.setTenant(callerTenant);
+        }
+    }
+
+    private Map<GroupKey, ReplenishmentGroupDTO> planChunk(List<BeerStockLevel> stockLevels) {
+        Map<GroupKey, ReplenishmentGroupDTO> groups = new HashMap<>();
+        for (BeerStockLevel stockLevel : stockLevels) {
+            ReplenishmentItemDTO item = planItem(stockLevel);
+            if (item == null) {
+                continue;
+            }
+            ReplenishmentGroupDTO group = groups.computeIfAbsent(
+                    new GroupKey(stockLevel.getBrand(), stockLevel.getType()),
+                    key -> ReplenishmentGroupDTO.builder()
+                            .brand(key.brand)
+                            .type(key.type)
+                            .items(new ArrayList<>())
+                            .build());
+            group.getItems().add(item);
+            group.setReorderQuantity(group.getReorderQuantity() + item.getReorderQuantity());
+        }
+        return groups;
+    }
+
+    /**
+     * Orders enough to refill the beer to {@code max} by the end of the lead
+     * time, once the projected level falls to the reorder point or below.
+     */
+    private ReplenishmentItemDTO planItem(BeerStockLevel stockLevel) {
+        if (stockLevel.getMax() <= 0) {
+            return null;
+        }
+        double dailyConsumption = consumptionRateProvider.dailyConsumption(stockLevel.getId());
+        double projectedQuantity = Math.max(0, stockLevel.getQuantity() - dailyConsumption * leadTimeDays);
+        int reorderQuantity = (int) Math.ceil(stockLevel.getMax() - projectedQuantity);
+        if (projectedQuantity / stockLevel.getMax() > reorderPoint || reorderQuantity <= 0) {
+            return null;
+        }
+        return ReplenishmentItemDTO.builder()
+                .id(stockLevel.getId())
+                .name(stockLevel.getName())
+                .quantity(stockLevel.getQuantity())
+                .max(stockLevel.getMax())
+                .dailyConsumption(dailyConsumption)
+                .reorderQuantity(reorderQuantity)
+                .build();
+    }
+
+    private static ReplenishmentGroupDTO mergeGroups(ReplenishmentGroupDTO merged, ReplenishmentGroupDTO chunkGroup) {
+        merged.getItems().addAll(chunkGroup.getItems());
+        merged.setReorderQuantity(merged.getReorderQuantity() + chunkGroup.getReorderQuantity());
+        return merged;
+    }
+
+    private static final class GroupKey {
+
+        private final String brand;
+        private final BeerType type;
+
+        private GroupKey(String brand, BeerType type) {
+            this.brand = brand;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey that = (GroupKey) other;
+            return brand.equals(that.brand) && type == that.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(brand, type);
+        }
+    }
+
+    private static final class CachedPlan {
+
+        private final long revision;
+        private final ReplenishmentPlanDTO plan;
+
+        private CachedPlan(long revision, ReplenishmentPlanDTO plan) {
+            this.revision = revision;
+            this.plan = plan;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.beer.stock.local.tenancy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.tenancy")
+public class TenancyProperties {
+
+    private boolean enabled = false;
+
+    private String header = "X-Tenant-Id";
+
+    // tenants served by this instance; any other X-Tenant-Id is rejected
+    private List<String> tenants = new ArrayList<>();
+
+    // {tenant} is replaced by the tenant id; an on-disk default, so closing an idle pool frees its memory
+    private String urlTemplate = "jdbc:h2:file:./data/tenant_{tenant};DB_CLOSE_ON_EXIT=FALSE";
+
+    private String username = "sa";
+
+    private String password = "";
+
+    private int maximumPoolSize = 4;
+
+    private Duration poolIdleTimeout = Duration.ofMinutes(10);
+}
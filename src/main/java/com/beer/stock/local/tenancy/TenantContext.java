@@ -0,0 +1,38 @@
+package com.beer.stock.local.tenancy;
+
+/**
+ * Tenant of the request being processed on the current thread. {@code null}
+ * means the default tenant, served by the primary datasource, which is also
+ * what every request sees when multi-tenancy is disabled.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenant() {
+        return CURRENT_TENANT.get();
+    }
+
+    public static void setTenant(String tenant) {
+        CURRENT_TENANT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT_TENANT.remove();
+    }
+
+    /**
+     * Qualifies a cache key with the current tenant, so in-process caches
+     * never serve one tenant's rows to another.
+     */
+    public static String scopedKey(Object key) {
+        return scopedKey(CURRENT_TENANT.get(), key);
+    }
+
+    public static String scopedKey(String tenant, Object key) {
+        return tenant == null ? String.valueOf(key) : tenant + '/' + key;
+    }
+}
@@ -0,0 +1,47 @@
+package com.beer.stock.local.tenancy;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Resolves the tenant from a request header into the {@link TenantContext}.
+ * Only configured tenants are accepted, since each one is backed by its own
+ * pool and database; requests without the header use the default tenant.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final String tenantHeader;
+    private final Set<String> tenants;
+
+    public TenantFilter(String tenantHeader, Collection<String> tenants) {
+        this.tenantHeader = tenantHeader;
+        this.tenants = Collections.unmodifiableSet(new HashSet<>(tenants));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(tenantHeader);
+        if (tenant != null && !tenants.contains(tenant)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown tenant in " + tenantHeader + " header");
+            return;
+        }
+        TenantContext.setTenant(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
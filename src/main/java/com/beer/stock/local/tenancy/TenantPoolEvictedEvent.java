@@ -0,0 +1,19 @@
+package com.beer.stock.local.tenancy;
+
+/**
+ * Published once the connection pool of an idle tenant has been retired, so
+ * components holding per-tenant state can release it. The state is rebuilt
+ * on the tenant's next request, just like its pool.
+ */
+public final class TenantPoolEvictedEvent {
+
+    private final String tenant;
+
+    public TenantPoolEvictedEvent(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+}
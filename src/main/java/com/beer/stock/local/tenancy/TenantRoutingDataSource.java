@@ -0,0 +1,223 @@
+package com.beer.stock.local.tenancy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Routes connections to the datasource of the tenant in {@link TenantContext}.
+ * Only the configured tenants are served, so the number of pools and
+ * databases is bounded by configuration rather than by request headers.
+ * Tenant pools are created (and their schema migrated) on first use and
+ * retired by {@link #evictIdlePools()} once unused for the idle timeout, so an
+ * instance only holds connections for tenants that are actually active.
+ *
+ * <p>A retired pool is only closed once no caller is still borrowing from it
+ * and all its connections are back, so a caller that looked the pool up just
+ * before eviction never gets a closed pool.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TenantRoutingDataSource.class);
+
+    // tenant ids end up in JDBC URLs
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9_]{1,32}");
+
+    private final TenancyProperties properties;
+    private final Set<String> tenants;
+    private final Map<String, TenantPool> tenantPools = new ConcurrentHashMap<>();
+    private final Map<String, Object> creationLocks = new ConcurrentHashMap<>();
+    private final Queue<TenantPool> retiredPools = new ConcurrentLinkedQueue<>();
+
+    public TenantRoutingDataSource(DataSource defaultDataSource, TenancyProperties properties) {
+        this.properties = properties;
+        this.tenants = Collections.unmodifiableSet(new HashSet<>(properties.getTenants()));
+        tenants.forEach(tenant -> {
+            if (!TENANT_ID.matcher(tenant).matches()) {
+                throw new IllegalStateException("Invalid tenant id " + tenant + ", expected " + TENANT_ID.pattern());
+            }
+        });
+        setDefaultTargetDataSource(defaultDataSource);
+        setTargetDataSources(Collections.emptyMap());
+        setLenientFallback(false);
+    }
+
+    public boolean isKnownTenant(String tenant) {
+        return tenants.contains(tenant);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String tenant = TenantContext.getTenant();
+        if (tenant == null) {
+            return getResolvedDefaultDataSource().getConnection();
+        }
+        TenantPool tenantPool = acquire(tenant);
+        try {
+            return tenantPool.dataSource.getConnection();
+        } finally {
+            tenantPool.borrowers.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String tenant = TenantContext.getTenant();
+        if (tenant == null) {
+            return getResolvedDefaultDataSource().getConnection(username, password);
+        }
+        TenantPool tenantPool = acquire(tenant);
+        try {
+            return tenantPool.dataSource.getConnection(username, password);
+        } finally {
+            tenantPool.borrowers.decrementAndGet();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.getTenant();
+    }
+
+    // only reached through unwrap and isWrapperFor, connections are borrowed in getConnection
+    @Override
+    protected DataSource determineTargetDataSource() {
+        String tenant = TenantContext.getTenant();
+        if (tenant == null) {
+            return getResolvedDefaultDataSource();
+        }
+        try {
+            TenantPool tenantPool = acquire(tenant);
+            tenantPool.borrowers.decrementAndGet();
+            return tenantPool.dataSource;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retires the pools unused for the idle timeout and closes the retired
+     * pools that have drained, returning the tenants whose pool was retired.
+     */
+    public List<String> evictIdlePools() {
+        List<String> evictedTenants = new ArrayList<>();
+        long idleNanos = properties.getPoolIdleTimeout().toNanos();
+        Iterator<Map.Entry<String, TenantPool>> iterator = tenantPools.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, TenantPool> entry = iterator.next();
+            TenantPool tenantPool = entry.getValue();
+            boolean idle = System.nanoTime() - tenantPool.lastUsedNanos > idleNanos
+                    && tenantPool.dataSource.getHikariPoolMXBean().getActiveConnections() == 0;
+            if (idle && tenantPools.remove(entry.getKey(), tenantPool)) {
+                tenantPool.retired = true;
+                retiredPools.add(tenantPool);
+                evictedTenants.add(entry.getKey());
+            }
+        }
+        closeDrainedPools();
+        return evictedTenants;
+    }
+
+    public int getActivePoolCount() {
+        return tenantPools.size();
+    }
+
+    /**
+     * Registers the caller as a borrower of the tenant's pool. The borrower
+     * count is raised before the retired flag is read, while eviction sets the
+     * flag before reading the count, so either the caller sees the pool
+     * retired and retries, or eviction sees the borrower and defers the close.
+     */
+    private TenantPool acquire(String tenant) throws SQLException {
+        if (!tenants.contains(tenant)) {
+            throw new SQLException("Unknown tenant " + tenant);
+        }
+        while (true) {
+            TenantPool tenantPool = tenantPools.get(tenant);
+            if (tenantPool == null) {
+                tenantPool = openPool(tenant);
+            }
+            tenantPool.borrowers.incrementAndGet();
+            if (!tenantPool.retired) {
+                tenantPool.lastUsedNanos = System.nanoTime();
+                return tenantPool;
+            }
+            tenantPool.borrowers.decrementAndGet();
+        }
+    }
+
+    // the pool is built and migrated outside the map, so a slow migration only blocks callers of the same tenant
+    private TenantPool openPool(String tenant) {
+        synchronized (creationLocks.computeIfAbsent(tenant, key -> new Object())) {
+            TenantPool existing = tenantPools.get(tenant);
+            if (existing != null) {
+                return existing;
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            try {
+                dataSource.setPoolName("tenant-" + tenant);
+                dataSource.setJdbcUrl(properties.getUrlTemplate().replace("{tenant}", tenant));
+                dataSource.setUsername(properties.getUsername());
+                dataSource.setPassword(properties.getPassword());
+                dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+                dataSource.setMinimumIdle(0);
+                dataSource.setIdleTimeout(
+                        Math.max(Duration.ofSeconds(10).toMillis(), properties.getPoolIdleTimeout().toMillis() / 2));
+                Flyway.configure().dataSource(dataSource).load().migrate();
+            } catch (RuntimeException e) {
+                dataSource.close();
+                throw e;
+            }
+            TenantPool tenantPool = new TenantPool(dataSource);
+            tenantPools.put(tenant, tenantPool);
+            LOGGER.info("Opened connection pool of tenant {}", tenant);
+            return tenantPool;
+        }
+    }
+
+    private void closeDrainedPools() {
+        Iterator<TenantPool> iterator = retiredPools.iterator();
+        while (iterator.hasNext()) {
+            TenantPool tenantPool = iterator.next();
+            if (tenantPool.borrowers.get() == 0
+                    && tenantPool.dataSource.getHikariPoolMXBean().getActiveConnections() == 0) {
+                iterator.remove();
+                tenantPool.dataSource.close();
+                LOGGER.info("Closed idle connection pool {}", tenantPool.dataSource.getPoolName());
+            }
+        }
+    }
+
+    private static final class TenantPool {
+
+        private final HikariDataSource dataSource;
+        private final AtomicInteger borrowers = new AtomicInteger();
+        private volatile boolean retired;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private TenantPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.beer.stock.local.write;
+
+public enum DurabilityMode {
+
+    // one transaction per mutation, acknowledged after its commit
+    SYNC,
+
+    // mutations of concurrent requests share a transaction, each acknowledged after that commit
+    GROUP_COMMIT,
+
+    // acknowledged once queued; committed in groups shortly after
+    ASYNC
+}
@@ -0,0 +1,353 @@
+package com.beer.stock.local.write;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.beer.stock.local.exception.BeerStockException;
+import com.beer.stock.local.exception.WriteUnavailableException;
+import com.beer.stock.local.tenancy.TenantContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs the mutations of {@code BeerService} in transactions according to the
+ * configured {@link DurabilityMode}. In the group modes a single committer
+ * thread drains the queue, runs every mutation that arrived within the group
+ * commit interval in one transaction per tenant, and completes the callers
+ * once that transaction commits.
+ *
+ * <p>Mutations must throw their {@link BeerStockException}s before changing
+ * anything, so a rejected mutation does not disturb the rest of its group. Any
+ * other failure rolls the group back, and its mutations are then retried one
+ * transaction each so only the culprit fails.
+ *
+ * <p>No caller waits without bound: a full queue rejects the write with a
+ * {@link WriteUnavailableException} (503) after the enqueue timeout, and a
+ * group-commit caller gets one when its commit is not confirmed within the
+ * commit timeout. A failure of any kind fails only the group it hit, and
+ * writes left queued when the committer stops are failed rather than left
+ * pending.
+ *
+ * <p>{@code beerstock.write.commit} times each mutation from submission to
+ * commit, and {@code beerstock.write.mutations} counts them by outcome.
+ */
+public class WriteCoordinator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteCoordinator.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final DurabilityMode durabilityMode;
+    private final long groupCommitIntervalNanos;
+    private final int maxGroupSize;
+    private final long enqueueTimeoutNanos;
+    private final long commitTimeoutNanos;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    // enqueues hold the read lock, so none can slip in after shutdown stops accepting work
+    private final ReadWriteLock acceptingLock = new ReentrantReadWriteLock();
+    private final Timer commitTimer;
+    private final Counter committedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final DistributionSummary groupSize;
+    private final Thread committer;
+    private volatile boolean running = true;
+
+    public WriteCoordinator(TransactionTemplate transactionTemplate, WriteProperties properties,
+            MeterRegistry meterRegistry) {
+        this.transactionTemplate = transactionTemplate;
+        this.durabilityMode = properties.getDurability();
+        this.groupCommitIntervalNanos = properties.getGroupCommitInterval().toNanos();
+        this.maxGroupSize = properties.getMaxGroupSize();
+        this.enqueueTimeoutNanos = properties.getEnqueueTimeout().toNanos();
+        this.commitTimeoutNanos = properties.getCommitTimeout().toNanos();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        String mode = durabilityMode.name().toLowerCase().replace('_', '-');
+        this.commitTimer = Timer.builder("beerstock.write.commit")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.committedCounter = meterRegistry.counter("beerstock.write.mutations", "mode", mode, "outcome", "committed");
+        this.rejectedCounter = meterRegistry.counter("beerstock.write.mutations", "mode", mode, "outcome", "rejected");
+        this.failedCounter = meterRegistry.counter("beerstock.write.mutations", "mode", mode, "outcome", "failed");
+        this.groupSize = DistributionSummary.builder("beerstock.write.group.size")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        Gauge.builder("beerstock.write.queue", queue, BlockingQueue::size)
+                .tag("mode", mode)
+                .register(meterRegistry);
+        if (durabilityMode == DurabilityMode.SYNC) {
+            committer = null;
+        } else {
+            committer = new Thread(this::commitLoop, "write-committer");
+            committer.start();
+        }
+    }
+
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+
+    /**
+     * Runs the mutation transactionally and returns its result, rethrowing its
+     * exceptions unchanged. In {@link DurabilityMode#ASYNC} the mutation is
+     * only queued and {@code null} is returned.
+     */
+    public <T> T execute(Mutation<T> mutation) {
+        long submitted = System.nanoTime();
+        if (durabilityMode == DurabilityMode.SYNC) {
+            try {
+                T result = transactionTemplate.execute(status -> apply(mutation));
+                committed(submitted);
+                return result;
+            } catch (MutationRejectedException e) {
+                rejectedCounter.increment();
+                throw WriteCoordinator.<RuntimeException>sneakyThrow(e.getCause());
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                throw e;
+            }
+        }
+        PendingWrite<T> pendingWrite = new PendingWrite<>(mutation, TenantContext.getTenant(), submitted);
+        enqueue(pendingWrite);
+        if (durabilityMode == DurabilityMode.ASYNC) {
+            return null;
+        }
+        try {
+            return pendingWrite.result.get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw WriteCoordinator.<RuntimeException>sneakyThrow(e.getCause());
+        } catch (TimeoutException e) {
+            throw WriteCoordinator.<RuntimeException>sneakyThrow(
+                    new WriteUnavailableException("not confirmed in time, it may still be committed"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the group commit", e);
+        }
+    }
+
+    /**
+     * Stops accepting work and lets the committer drain the queue, so queued
+     * asynchronous writes are not lost on a graceful shutdown. Writes still
+     * queued when the committer does not finish in time are failed.
+     */
+    public void shutdown() throws InterruptedException {
+        stopAccepting();
+        if (committer != null) {
+            committer.join(TimeUnit.SECONDS.toMillis(30));
+            failQueued();
+        }
+    }
+
+    private void stopAccepting() {
+        acceptingLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptingLock.writeLock().unlock();
+        }
+    }
+
+    private void enqueue(PendingWrite<?> pendingWrite) {
+        acceptingLock.readLock().lock();
+        try {
+            if (!running) {
+                throw WriteCoordinator.<RuntimeException>sneakyThrow(new WriteUnavailableException("shutting down"));
+            }
+            if (!queue.offer(pendingWrite, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw WriteCoordinator.<RuntimeException>sneakyThrow(new WriteUnavailableException("write queue full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a write", e);
+        } finally {
+            acceptingLock.readLock().unlock();
+        }
+    }
+
+    private void commitLoop() {
+        List<PendingWrite<?>> group = new ArrayList<>(maxGroupSize);
+        boolean interrupted = false;
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    group.add(first);
+                    long deadline = System.nanoTime() + groupCommitIntervalNanos;
+                    while (group.size() < maxGroupSize) {
+                        PendingWrite<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        group.add(next);
+                    }
+                } catch (InterruptedException e) {
+                    // treated as a shutdown request: stop accepting, then drain what is queued
+                    interrupted = true;
+                    stopAccepting();
+                }
+                if (!group.isEmpty()) {
+                    groupSize.record(group.size());
+                    commitSafely(group);
+                    group.clear();
+                }
+            }
+        } finally {
+            stopAccepting();
+            failQueued();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void commitSafely(List<PendingWrite<?>> group) {
+        try {
+            commitByTenant(group);
+        } catch (Throwable e) {
+            LOGGER.error("Group commit failed unexpectedly", e);
+            group.stream()
+                    .filter(pendingWrite -> !pendingWrite.result.isDone())
+                    .forEach(pendingWrite -> fail(pendingWrite, e));
+        }
+    }
+
+    private void failQueued() {
+        List<PendingWrite<?>> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(pendingWrite -> fail(pendingWrite, new WriteUnavailableException("shut down before commit")));
+    }
+
+    private void commitByTenant(List<PendingWrite<?>> group) {
+        Map<String, List<PendingWrite<?>>> groupsByTenant = new LinkedHashMap<>();
+        for (PendingWrite<?> pendingWrite : group) {
+            groupsByTenant.computeIfAbsent(pendingWrite.tenant, tenant -> new ArrayList<>()).add(pendingWrite);
+        }
+        groupsByTenant.forEach((tenant, tenantGroup) -> {
+            TenantContext.setTenant(tenant);
+            try {
+                commit(tenantGroup);
+            } finally {
+                TenantContext.clear();
+            }
+        });
+    }
+
+    private void commit(List<PendingWrite<?>> group) {
+        List<Object> results = new ArrayList<>(group.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingWrite<?> pendingWrite : group) {
+                    try {
+                        results.add(apply(pendingWrite.mutation));
+                    } catch (MutationRejectedException e) {
+                        results.add(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                fail(group.get(0), e);
+                return;
+            }
+            LOGGER.debug("Group of {} writes rolled back, retrying them one by one", group.size(), e);
+            group.forEach(pendingWrite -> commit(Collections.singletonList(pendingWrite)));
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            complete(group.get(i), results.get(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete(PendingWrite<?> pendingWrite, Object result) {
+        if (result instanceof MutationRejectedException) {
+            rejectedCounter.increment();
+            Throwable rejection = ((MutationRejectedException) result).getCause();
+            if (durabilityMode == DurabilityMode.ASYNC) {
+                LOGGER.warn("Acknowledged write rejected: {}", rejection.getMessage());
+            }
+            pendingWrite.result.completeExceptionally(rejection);
+            return;
+        }
+        committed(pendingWrite.submitted);
+        ((CompletableFuture<Object>) pendingWrite.result).complete(result);
+    }
+
+    private void fail(PendingWrite<?> pendingWrite, Throwable failure) {
+        failedCounter.increment();
+        if (durabilityMode == DurabilityMode.ASYNC) {
+            LOGGER.error("Acknowledged write lost", failure);
+        }
+        pendingWrite.result.completeExceptionally(failure);
+    }
+
+    private void committed(long submitted) {
+        committedCounter.increment();
+        commitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+    }
+
+    private static <T> T apply(Mutation<T> mutation) {
+        try {
+            return mutation.apply();
+        } catch (BeerStockException e) {
+            throw new MutationRejectedException(e);
+        }
+    }
+
+    // rethrows the mutation's checked exception as is, so callers keep their own throws clauses
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    @FunctionalInterface
+    public interface Mutation<T> {
+
+        T apply() throws BeerStockException;
+    }
+
+    private static final class PendingWrite<T> {
+
+        private final Mutation<T> mutation;
+        private final String tenant;
+        private final long submitted;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private PendingWrite(Mutation<T> mutation, String tenant, long submitted) {
+            this.mutation = mutation;
+            this.tenant = tenant;
+            this.submitted = submitted;
+        }
+    }
+
+    private static final class MutationRejectedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private MutationRejectedException(BeerStockException cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.beer.stock.local.write;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "beerstock.write")
+public class WriteProperties {
+
+    private DurabilityMode durability = DurabilityMode.SYNC;
+
+    // how long the committer waits for more mutations after the first one of a group
+    private Duration groupCommitInterval = Duration.ofMillis(5);
+
+    private int maxGroupSize = 256;
+
+    // once this many mutations wait for the committer, submitters wait up to enqueue-timeout and then get a 503
+    private int queueCapacity = 10_000;
+
+    private Duration enqueueTimeout = Duration.ofMillis(100);
+
+    // group-commit callers get a 503 when their write is not confirmed in time; it may still commit
+    private Duration commitTimeout = Duration.ofSeconds(10);
+}
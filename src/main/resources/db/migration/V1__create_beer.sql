@@ -0,0 +1,9 @@
+CREATE TABLE beer (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    brand VARCHAR(255) NOT NULL,
+    max INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_beer_name UNIQUE (name)
+);
@@ -0,0 +1 @@
+CREATE INDEX idx_beer_type ON beer (type);
@@ -0,0 +1,10 @@
+ALTER TABLE beer ADD COLUMN fill_ratio DOUBLE PRECISION DEFAULT 0 NOT NULL;
+
+UPDATE beer SET fill_ratio = CASE WHEN max > 0 THEN CAST(quantity AS DOUBLE PRECISION) / max ELSE 1 END;
+
+DROP INDEX idx_beer_type;
+
+CREATE INDEX idx_beer_type_brand ON beer (type, brand);
+CREATE INDEX idx_beer_brand ON beer (brand);
+CREATE INDEX idx_beer_quantity ON beer (quantity);
+CREATE INDEX idx_beer_fill_ratio ON beer (fill_ratio);
@@ -0,0 +1,7 @@
+CREATE TABLE beer_change_event (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    beer_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_beer_change_event_created_at ON beer_change_event (created_at);
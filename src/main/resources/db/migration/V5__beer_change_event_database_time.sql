@@ -0,0 +1 @@
+ALTER TABLE beer_change_event ALTER COLUMN created_at SET DEFAULT LOCALTIMESTAMP;
@@ -0,0 +1,12 @@
+CREATE TABLE stock_rollup (
+    beer_id BIGINT NOT NULL,
+    resolution VARCHAR(8) NOT NULL,
+    bucket_start BIGINT NOT NULL,
+    min_quantity INTEGER NOT NULL,
+    max_quantity INTEGER NOT NULL,
+    last_quantity INTEGER NOT NULL,
+    samples INTEGER NOT NULL,
+    quantity_sum BIGINT NOT NULL,
+    consumed BIGINT NOT NULL,
+    PRIMARY KEY (beer_id, resolution, bucket_start)
+);
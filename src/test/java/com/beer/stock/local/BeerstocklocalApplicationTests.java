@@ -1,13 +1,121 @@
 package com.beer.stock.local;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.beer.stock.local.actuator.SlowQueriesEndpoint;
+import com.beer.stock.local.builder.BeerDTOBuilder;
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.repository.BeerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class BeerstocklocalApplicationTests {
 
+	@Autowired
+	private BeerRepository beerRepository;
+
+	@Autowired
+	private SlowQueriesEndpoint slowQueriesEndpoint;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void whenRepositoryIsCalledThenSlowQueriesEndpointListsIt() {
+		beerRepository.findByName("Brahma");
+
+		assertThat(slowQueriesEndpoint.slowQueries(null), hasItem(hasProperty("method", is("findByName"))));
+	}
+
+	@Test
+	void whenCatalogueIsListedAcceptingGzipThenPreCompressedSnapshotIsServed() throws Exception {
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Snapshot Pilsen").build().toBeerDTO();
+		mockMvc.perform(post("/api/v1/beers").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(beerDTO)))
+				.andExpect(status().isCreated());
+
+		byte[] body = mockMvc.perform(get("/api/v1/beers").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			BeerDTO[] beers = objectMapper.readValue(json, BeerDTO[].class);
+			assertEquals(beerDTO.getName(), beers[beers.length - 1].getName());
+		}
+	}
+
+	@Test
+	void whenGzipIsRefusedWithZeroQualityThenPlainJsonIsServed() throws Exception {
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Identity Pilsen").build().toBeerDTO();
+		mockMvc.perform(post("/api/v1/beers").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(beerDTO)))
+				.andExpect(status().isCreated());
+
+		byte[] body = mockMvc.perform(get("/api/v1/beers").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		BeerDTO[] beers = objectMapper.readValue(body, BeerDTO[].class);
+		assertEquals(beerDTO.getName(), beers[beers.length - 1].getName());
+	}
+
+	@Test
+	void whenStockChangesThenItsHistoryIsRecorded() throws Exception {
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("History Pilsen").quantity(10).build().toBeerDTO();
+		BeerDTO createdBeerDTO = objectMapper.readValue(mockMvc.perform(post("/api/v1/beers")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(beerDTO)))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString(), BeerDTO.class);
+		mockMvc.perform(patch("/api/v1/beers/" + createdBeerDTO.getId() + "/increment")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"quantity\": 5}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/v1/beers/" + createdBeerDTO.getId() + "/history").param("resolution", "raw"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.points.length()", is(2)))
+				.andExpect(jsonPath("$.points[0].last", is(10)))
+				.andExpect(jsonPath("$.points[1].last", is(15)));
+	}
+
+	@Test
+	void whenOpenApiDocumentIsRequestedThenStaticDescriptionIsServed() throws Exception {
+		mockMvc.perform(get("/openapi.json"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.openapi", is("3.0.3")))
+				.andExpect(jsonPath("$.paths['/api/v1/beers/{id}'].delete.operationId", is("deleteById")));
+	}
+
 }
@@ -0,0 +1,25 @@
+package com.beer.stock.local;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the postgres profile against H2 in PostgreSQL compatibility mode, so the
+ * migrations and schema validation are exercised without a PostgreSQL server.
+ * Hibernate keeps the H2 dialect: the PostgreSQL one reads sequence metadata H2 lacks.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:pgstandin;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect" })
+@ActiveProfiles("postgres")
+class BeerstocklocalPostgresProfileTests {
+
+	@Test
+	void contextLoadsWithMigrationsValidated() {
+	}
+
+}
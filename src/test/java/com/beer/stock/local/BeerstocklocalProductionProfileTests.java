@@ -0,0 +1,17 @@
+package com.beer.stock.local;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:prodprofile;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"beerstock.warmup.iterations=10" })
+@ActiveProfiles("prod")
+class BeerstocklocalProductionProfileTests {
+
+	@Test
+	void contextLoadsWithMigrationsValidatedAndWarmUpRun() {
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.beer.stock.local;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.beer.stock.local.builder.BeerDTOBuilder;
+import com.beer.stock.local.cache.BeerInvalidationBus;
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.replica.ReadYourWritesFilter;
+import com.beer.stock.local.replica.ReplicaNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replicaprimary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"beerstock.replica.enabled=true",
+		"beerstock.replica.urls=jdbc:h2:mem:replicatest0;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE,"
+				+ "jdbc:h2:mem:replicatest1;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE" })
+@AutoConfigureMockMvc
+class BeerstocklocalReplicaTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private List<ReplicaNode> replicaNodes;
+
+	@Autowired
+	private BeerInvalidationBus invalidationBus;
+
+	@Test
+	void whenBeerIsCreatedThenItIsReplicatedAndReadableByItsWriter() throws Exception {
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Replicated Pilsen").build().toBeerDTO();
+
+		Cookie lastWrite = mockMvc.perform(post("/api/v1/beers")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(beerDTO)))
+				.andExpect(status().isCreated())
+				.andExpect(cookie().exists(ReadYourWritesFilter.LAST_WRITE_COOKIE))
+				.andReturn().getResponse().getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+		mockMvc.perform(get("/api/v1/beers/" + beerDTO.getName()).cookie(lastWrite))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name", is(beerDTO.getName())));
+
+		awaitReplicasCaughtUp();
+		for (ReplicaNode replica : replicaNodes) {
+			Integer count = new JdbcTemplate(replica.getDataSource())
+					.queryForObject("SELECT COUNT(*) FROM beer WHERE name = ?", Integer.class, beerDTO.getName());
+			assertEquals(1, count);
+		}
+	}
+
+	@Test
+	void whenReplicasAreCaughtUpThenReadsAreServedByThem() throws Exception {
+		awaitReplicasCaughtUp();
+		// a row that only exists on the replicas proves where the read went
+		for (ReplicaNode replica : replicaNodes) {
+			new JdbcTemplate(replica.getDataSource()).update("INSERT INTO beer (id, name, brand, max, quantity, type) "
+					+ "VALUES (900000, 'Replica Only', 'Ambev', 50, 10, 'LAGER')");
+		}
+
+		// a client that just wrote, possibly through another instance, is pinned to the primary
+		mockMvc.perform(get("/api/v1/beers/Replica Only")
+				.cookie(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()))))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/v1/beers/Replica Only"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.brand", is("Ambev")));
+	}
+
+	private void awaitReplicasCaughtUp() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (replicaNodes.stream().anyMatch(replica -> replica.lag(invalidationBus.getRevision()) > 0)) {
+			assertTrue(System.currentTimeMillis() < deadline, "replicas did not catch up");
+			Thread.sleep(10);
+		}
+	}
+
+}
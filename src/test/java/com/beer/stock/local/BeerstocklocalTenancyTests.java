@@ -0,0 +1,149 @@
+package com.beer.stock.local;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.beer.stock.local.builder.BeerDTOBuilder;
+import com.beer.stock.local.cache.CatalogueSnapshot;
+import com.beer.stock.local.cache.CatalogueSnapshot.Catalogue;
+import com.beer.stock.local.config.TenancyConfig;
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.tenancy.TenancyProperties;
+import com.beer.stock.local.tenancy.TenantContext;
+import com.beer.stock.local.tenancy.TenantPoolEvictedEvent;
+import com.beer.stock.local.tenancy.TenantRoutingDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:tenancy;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"beerstock.tenancy.enabled=true",
+		"beerstock.tenancy.tenants=tenant_a,tenant_b",
+		"beerstock.tenancy.url-template=jdbc:h2:mem:tenancy_{tenant};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE" })
+@AutoConfigureMockMvc
+class BeerstocklocalTenancyTests {
+
+	private static final String TENANT_HEADER = "X-Tenant-Id";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TenantRoutingDataSource tenantRoutingDataSource;
+
+	@Autowired
+	private CatalogueSnapshot catalogueSnapshot;
+
+	@Test
+	void whenBeerIsCreatedForATenantThenOnlyThatTenantSeesIt() throws Exception {
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Tenant Pilsen").build().toBeerDTO();
+
+		mockMvc.perform(post("/api/v1/beers").header(TENANT_HEADER, "tenant_a")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(beerDTO)))
+				.andExpect(status().isCreated());
+
+		mockMvc.perform(get("/api/v1/beers").header(TENANT_HEADER, "tenant_a"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+		mockMvc.perform(get("/api/v1/beers/" + beerDTO.getName()).header(TENANT_HEADER, "tenant_a"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/v1/beers").header(TENANT_HEADER, "tenant_b"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(0)));
+		mockMvc.perform(get("/api/v1/beers/" + beerDTO.getName()).header(TENANT_HEADER, "tenant_b"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/v1/beers/" + beerDTO.getName()))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void whenTenantHeaderIsInvalidThenBadRequestIsReturned() throws Exception {
+		mockMvc.perform(get("/api/v1/beers").header(TENANT_HEADER, "Tenant;DROP"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void whenTenantIsNotConfiguredThenItIsRejectedWithoutOpeningAPool() throws Exception {
+		int poolsBefore = tenantRoutingDataSource.getActivePoolCount();
+
+		mockMvc.perform(get("/api/v1/beers").header(TENANT_HEADER, "tenant_unknown"))
+				.andExpect(status().isBadRequest());
+
+		assertThat(tenantRoutingDataSource.getActivePoolCount(), is(poolsBefore));
+	}
+
+	@Test
+	void whenTheOutboxBusIsSelectedWithTenancyThenStartupFails() {
+		TenancyConfig tenancyConfig = new TenancyConfig(event -> {
+		});
+
+		assertThrows(IllegalStateException.class,
+				() -> tenancyConfig.dataSource(null, new TenancyProperties(), null, "outbox"));
+	}
+
+	@Test
+	void whenAnIdlePoolIsEvictedThenTheTenantsCatalogueIsReleased() throws Exception {
+		mockMvc.perform(get("/api/v1/beers").header(TENANT_HEADER, "tenant_b"))
+				.andExpect(status().isOk());
+		TenantContext.setTenant("tenant_b");
+		try {
+			Catalogue catalogue = catalogueSnapshot.get();
+
+			catalogueSnapshot.onTenantPoolEvicted(new TenantPoolEvictedEvent("tenant_b"));
+
+			assertThat(catalogueSnapshot.get() == catalogue, is(false));
+		} finally {
+			TenantContext.clear();
+		}
+	}
+
+	@Test
+	void whenPoolIsEvictedWhileInUseThenItIsClosedOnlyAfterItsConnectionsReturn() throws Exception {
+		TenancyProperties properties = new TenancyProperties();
+		properties.setTenants(Arrays.asList("tenant_evicted"));
+		properties.setUrlTemplate("jdbc:h2:mem:tenancy_{tenant};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+		properties.setPoolIdleTimeout(Duration.ZERO);
+		TenantRoutingDataSource dataSource = new TenantRoutingDataSource(tenantRoutingDataSource, properties);
+
+		TenantContext.setTenant("tenant_evicted");
+		try (Connection connection = dataSource.getConnection()) {
+			Thread.sleep(5);
+			dataSource.evictIdlePools();
+			assertThat(dataSource.getActivePoolCount(), is(1));
+			assertThat(connection.isValid(1), is(true));
+		}
+		try {
+			Thread.sleep(5);
+			dataSource.evictIdlePools();
+			assertThat(dataSource.getActivePoolCount(), is(0));
+			try (Connection connection = dataSource.getConnection()) {
+				assertThat(connection.isValid(1), is(true));
+			}
+		} finally {
+			TenantContext.clear();
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.beer.stock.local.admission;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdmissionControlFilterTest {
+
+	private static final String INCREMENT_URL = "/api/v1/beers/1/increment";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void whenClientExceedsItsBurstThenTooManyRequestsIsReturned() throws Exception {
+
+		// given
+		AdmissionControlProperties properties = new AdmissionControlProperties();
+		properties.setBurst(2);
+		properties.setRequestsPerSecond(0.001);
+		AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+
+		// when
+		int first = patch(filter, "10.0.0.1", "scanner-1");
+		int second = patch(filter, "10.0.0.1", "scanner-1");
+		int third = patch(filter, "10.0.0.1", "scanner-1");
+		int otherClient = patch(filter, "10.0.0.2", "scanner-2");
+
+		// then
+		assertThat(first, is(HttpStatus.OK.value()));
+		assertThat(second, is(HttpStatus.OK.value()));
+		assertThat(third, is(HttpStatus.TOO_MANY_REQUESTS.value()));
+		assertThat(otherClient, is(HttpStatus.OK.value()));
+		assertThat(meterRegistry.counter("beerstock.admission.rejected", "reason", "rate_limited").count(), is(1.0));
+	}
+
+	@Test
+	void whenClientRotatesItsClientIdThenItStillSharesOneBucket() throws Exception {
+
+		// given
+		AdmissionControlProperties properties = new AdmissionControlProperties();
+		properties.setBurst(2);
+		properties.setRequestsPerSecond(0.001);
+		AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+
+		// when
+		patch(filter, "10.0.0.1", "scanner-1");
+		patch(filter, "10.0.0.1", "scanner-2");
+		int rotated = patch(filter, "10.0.0.1", "scanner-3");
+
+		// then
+		assertThat(rotated, is(HttpStatus.TOO_MANY_REQUESTS.value()));
+	}
+
+	@Test
+	void whenClientTableIsFullThenNewClientsShareTheOverflowBucketUntilIdleOnesAreSwept() {
+
+		// given
+		ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 1, 2);
+		long now = 0;
+		rateLimiter.tryAcquire("a", now);
+		rateLimiter.tryAcquire("b", now);
+
+		// when every tracked client is active, a new one goes to the overflow bucket
+		rateLimiter.tryAcquire("c", now);
+		int whileActive = rateLimiter.trackedClients();
+
+		// then once "a" has refilled the sweep drops it, while the active "b" is kept
+		long later = Duration.ofSeconds(2).toNanos();
+		rateLimiter.tryAcquire("b", later);
+		rateLimiter.evictIdle(later);
+		int afterSweep = rateLimiter.trackedClients();
+		boolean admitted = rateLimiter.tryAcquire("d", later);
+
+		assertThat(whileActive, is(2));
+		assertThat(afterSweep, is(1));
+		assertThat(admitted, is(true));
+		assertThat(rateLimiter.trackedClients(), is(2));
+	}
+
+	@Test
+	void whenConcurrencyLimitIsReachedThenFurtherRequestsAreRejected() {
+
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, Duration.ofMillis(100).toNanos(), 0.5);
+
+		// then
+		assertThat(limiter.tryAcquire(), is(true));
+		assertThat(limiter.tryAcquire(), is(false));
+		limiter.release(Duration.ofMillis(1).toNanos());
+		assertThat(limiter.getLimit(), is(2));
+	}
+
+	@Test
+	void whenRequestIsSlowThenConcurrencyLimitBacksOff() {
+
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, Duration.ofMillis(100).toNanos(), 0.5);
+
+		// when
+		limiter.tryAcquire();
+		limiter.release(Duration.ofSeconds(1).toNanos());
+
+		// then
+		assertThat(limiter.getLimit(), is(4));
+	}
+
+	@Test
+	void whenReadRequestIsMadeThenItIsNotAdmissionControlled() throws Exception {
+
+		// given
+		AdmissionControlProperties properties = new AdmissionControlProperties();
+		properties.setBurst(1);
+		properties.setRequestsPerSecond(0.001);
+		AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+
+		// when
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		for (int i = 0; i < 3; i++) {
+			response = new MockHttpServletResponse();
+			filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/beers"), response, new MockFilterChain());
+		}
+
+		// then
+		assertThat(response.getStatus(), is(HttpStatus.OK.value()));
+	}
+
+	private int patch(AdmissionControlFilter filter, String remoteAddr, String clientId) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("PATCH", INCREMENT_URL);
+		request.setRemoteAddr(remoteAddr);
+		request.addHeader("X-Client-Id", clientId);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response.getStatus();
+	}
+}
@@ -0,0 +1,110 @@
+package com.beer.stock.local.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.enums.BeerType;
+
+public class BeerCacheTest {
+
+	private final LocalBeerInvalidationBus invalidationBus = new LocalBeerInvalidationBus();
+
+	private final BeerCache beerCache = new BeerCache(invalidationBus, 100);
+
+	@Test
+	void whenAnInvalidationLandsBetweenTheEntryAndItsIdMappingThenTheStaleEntryIsRemoved() {
+
+		// given a value loaded before the change, whose id is read only once the entry is stored
+		long revisionBeforeLoad = beerCache.currentRevision();
+		AtomicBoolean changeLanded = new AtomicBoolean();
+		BeerDTO staleBeerDTO = new BeerDTO(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER) {
+			@Override
+			public Long getId() {
+				if (changeLanded.compareAndSet(false, true)) {
+					invalidationBus.publish(super.getId());
+				}
+				return super.getId();
+			}
+		};
+
+		// when
+		beerCache.put(staleBeerDTO, revisionBeforeLoad);
+
+		// then
+		assertThat(changeLanded.get(), is(true));
+		assertThat(beerCache.findByName("Brahma"), is(Optional.empty()));
+	}
+
+	@Test
+	void whenTheRevisionMovedBeforeThePutThenNothingIsCached() {
+
+		// given
+		long revisionBeforeLoad = beerCache.currentRevision();
+		invalidationBus.publish(1L);
+
+		// when
+		beerCache.put(beer(1L, "Brahma"), revisionBeforeLoad);
+
+		// then
+		assertThat(beerCache.findByName("Brahma"), is(Optional.empty()));
+	}
+
+	@Test
+	void whenTheRevisionIsUnchangedThenTheEntryIsCachedUntilInvalidated() {
+
+		// given
+		BeerDTO beerDTO = beer(1L, "Brahma");
+
+		// when
+		beerCache.put(beerDTO, beerCache.currentRevision());
+
+		// then
+		assertThat(beerCache.findByName("Brahma"), is(Optional.of(beerDTO)));
+		invalidationBus.publish(1L);
+		assertThat(beerCache.findByName("Brahma"), is(Optional.empty()));
+	}
+
+	@Test
+	void whenMoreNamesThanTheMaximumAreReadThenNewOnesAreStillCachedWithinTheBound() {
+
+		// given
+		BeerCache boundedCache = new BeerCache(invalidationBus, 4);
+
+		// when
+		for (long id = 1; id <= 100; id++) {
+			boundedCache.put(beer(id, "Beer " + id), boundedCache.currentRevision());
+		}
+
+		// then
+		assertThat(boundedCache.findByName("Beer 100").isPresent(), is(true));
+		assertThat(boundedCache.size(), is(lessThanOrEqualTo(4)));
+	}
+
+	@Test
+	void whenTheCacheIsFullThenTheLeastRecentlyUsedNameIsEvicted() {
+
+		// given
+		BeerCache singleEntryCache = new BeerCache(invalidationBus, 1);
+		singleEntryCache.put(beer(1L, "Brahma"), singleEntryCache.currentRevision());
+
+		// when
+		singleEntryCache.put(beer(2L, "Skol"), singleEntryCache.currentRevision());
+
+		// then
+		assertThat(singleEntryCache.findByName("Brahma"), is(Optional.empty()));
+		assertThat(singleEntryCache.findByName("Skol").isPresent(), is(true));
+		invalidationBus.publish(1L);
+		assertThat(singleEntryCache.findByName("Skol").isPresent(), is(true));
+	}
+
+	private static BeerDTO beer(Long id, String name) {
+		return new BeerDTO(id, name, "Ambev", 50, 10, BeerType.LAGER);
+	}
+}
@@ -0,0 +1,124 @@
+package com.beer.stock.local.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.beer.stock.local.builder.BeerDTOBuilder;
+import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.entity.BeerChangeEvent;
+import com.beer.stock.local.repository.BeerChangeEventRepository;
+import com.beer.stock.local.repository.BeerRepository;
+import com.beer.stock.local.service.BeerService;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"beerstock.invalidation.mode=outbox",
+		"beerstock.invalidation.poll-interval-ms=3600000" })
+class OutboxBeerInvalidationBusTests {
+
+	@Autowired
+	private BeerService beerService;
+
+	@Autowired
+	private BeerRepository beerRepository;
+
+	@Autowired
+	private BeerChangeEventRepository beerChangeEventRepository;
+
+	@Autowired
+	private OutboxBeerInvalidationBus invalidationBus;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void whenAnotherNodeChangesABeerThenPollingRefreshesTheCachedLookup() throws Exception {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).name("Outbox Lager").build().toBeerDTO();
+		BeerDTO createdBeerDTO = beerService.createBeer(beerDTO);
+		beerService.findByName(createdBeerDTO.getName());
+
+		// when another node increments the stock and records the change
+		Beer changedByOtherNode = beerRepository.findById(createdBeerDTO.getId()).get();
+		changedByOtherNode.setQuantity(changedByOtherNode.getQuantity() + 5);
+		beerRepository.save(changedByOtherNode);
+		long revisionBefore = invalidationBus.getRevision();
+		beerChangeEventRepository.save(new BeerChangeEvent(null, createdBeerDTO.getId(), null));
+
+		// then
+		assertThat(beerService.findByName(createdBeerDTO.getName()).getQuantity(), is(beerDTO.getQuantity()));
+		invalidationBus.poll();
+		assertThat(invalidationBus.getRevision(), is(greaterThan(revisionBefore)));
+		assertThat(beerService.findByName(createdBeerDTO.getName()).getQuantity(), is(beerDTO.getQuantity() + 5));
+	}
+
+	@Test
+	void whenAnEventWithALowerIdBecomesVisibleLateThenTheRevisionStillMoves() {
+
+		// given a node that delivered a later event before a slow transaction's earlier one became visible
+		OutboxBeerInvalidationBus node = new OutboxBeerInvalidationBus(beerChangeEventRepository, Duration.ofSeconds(5),
+				Duration.ofMinutes(10));
+		beerChangeEventRepository.save(new BeerChangeEvent(null, 1L, null));
+		node.publish(2L);
+		long revisionBefore = node.getRevision();
+
+		// when
+		node.poll();
+
+		// then
+		assertThat(node.getRevision(), is(greaterThan(revisionBefore)));
+	}
+
+	@Test
+	void whenAnEventCommitsLongAfterALaterOneThenItIsStillDelivered() {
+
+		// given a node that has seen a later event while an earlier id is still uncommitted
+		OutboxBeerInvalidationBus node = new OutboxBeerInvalidationBus(beerChangeEventRepository, Duration.ofMinutes(10),
+				Duration.ofMinutes(10));
+		long firstId = beerChangeEventRepository.save(new BeerChangeEvent(null, 1L, null)).getId();
+		node.poll();
+		long slowId = firstId + 1;
+		jdbcTemplate.update("INSERT INTO beer_change_event (id, beer_id) VALUES (?, ?)", slowId + 1, 2L);
+		node.poll();
+		long revisionBefore = node.getRevision();
+
+		// when the slow transaction commits, whatever its timestamp says
+		jdbcTemplate.update("INSERT INTO beer_change_event (id, beer_id, created_at) VALUES (?, ?, ?)", slowId, 3L,
+				Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+		node.poll();
+
+		// then
+		assertThat(node.getRevision(), is(revisionBefore + 1));
+	}
+
+	@Test
+	void whenPruningThenOnlyEventsOlderThanTheRetentionByDatabaseTimeAreDeleted() {
+
+		// given
+		long recentId = beerChangeEventRepository.save(new BeerChangeEvent(null, 1L, null)).getId();
+		jdbcTemplate.update("INSERT INTO beer_change_event (beer_id, created_at) VALUES (?, ?)", 2L,
+				Timestamp.from(beerChangeEventRepository.currentTimestamp().minus(Duration.ofHours(1))));
+
+		// when
+		invalidationBus.prune();
+
+		// then
+		assertThat(beerChangeEventRepository.existsById(recentId), is(true));
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM beer_change_event WHERE beer_id = 2 AND created_at < ?",
+				Long.class, Timestamp.from(beerChangeEventRepository.currentTimestamp().minus(Duration.ofMinutes(10)))),
+				is(0L));
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.beer.stock.local.concurrent;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+	private static final int CALLERS = 8;
+
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+	@Test
+	void whenConcurrentCallsShareAKeyThenLoaderRunsOnce() throws Exception {
+
+		// given
+		AtomicInteger loads = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+		// when
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> singleFlight.execute("Brahma", () -> {
+				loads.incrementAndGet();
+				awaitCollapsedCallers(CALLERS - 1);
+				return "loaded";
+			})));
+		}
+
+		// then
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS), is("loaded"));
+		}
+		executor.shutdown();
+		assertThat(loads.get(), is(1));
+		assertThat(singleFlight.getExecutedCount(), is(1L));
+		assertThat(singleFlight.getCollapsedCount(), is((long) CALLERS - 1));
+	}
+
+	@Test
+	void whenLoaderFailsThenTheExceptionIsRethrown() {
+		assertThrows(IllegalStateException.class, () -> singleFlight.execute("Brahma", () -> {
+			throw new IllegalStateException("database unavailable");
+		}));
+		assertThat(singleFlight.execute("Brahma", () -> "recovered"), is("recovered"));
+	}
+
+	private void awaitCollapsedCallers(int expected) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (singleFlight.getCollapsedCount() < expected && System.nanoTime() < deadline) {
+			Thread.yield();
+		}
+	}
+}
@@ -1,13 +1,16 @@
 package com.beer.stock.local.controller;
 
 import static org.hamcrest.Matchers.is;
-import static org.mockito.Mockito.doNothing;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 
@@ -18,8 +21,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -27,12 +38,27 @@ import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
 import com.beer.stock.local.builder.BeerDTOBuilder;
 import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.dto.BeerDeleteFilterDTO;
+import com.beer.stock.local.dto.BeerFilterDTO;
 import com.beer.stock.local.dto.QuantityDTO;
+import com.beer.stock.local.dto.ReplenishmentGroupDTO;
+import com.beer.stock.local.dto.ReplenishmentPlanDTO;
+import com.beer.stock.local.dto.StockHistoryDTO;
+import com.beer.stock.local.dto.StockHistoryPointDTO;
+import com.beer.stock.local.dto.StockHistoryQueryDTO;
+import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.enums.BeerType;
 import com.beer.stock.local.exception.BeerNotFoundException;
+import com.beer.stock.local.exception.BeerStockExceededException;
+import com.beer.stock.local.exception.BeerStockExceptionHandler;
+import com.beer.stock.local.history.HistoryResolution;
+import com.beer.stock.local.history.StockHistoryStore;
 import com.beer.stock.local.service.BeerService;
+import com.beer.stock.local.service.ReplenishmentPlanner;
 //import static com.beer.stock.local.utils.JsonConvertionUtils.asJsonString;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
 @ExtendWith(MockitoExtension.class)
 public class BeerControllerTest {
@@ -48,6 +74,12 @@ public class BeerControllerTest {
 	@Mock
 	private BeerService beerService;
 
+	@Mock
+	private ReplenishmentPlanner replenishmentPlanner;
+
+	@Mock
+	private StockHistoryStore stockHistoryStore;
+
 	@InjectMocks
 	private BeerController beerController;
 
@@ -57,6 +89,8 @@ public class BeerControllerTest {
 	void setup() {
 		mockMvc = MockMvcBuilders.standaloneSetup(beerController)
 				.setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+				.setMessageConverters(new MappingJackson2HttpMessageConverter(), new MappingJackson2CborHttpMessageConverter())
+				.setControllerAdvice(new BeerStockExceptionHandler())
 				.setViewResolvers((s, locale) -> new MappingJackson2JsonView()).build();
 	}
 
@@ -89,7 +123,22 @@ public class BeerControllerTest {
 
 		// then
 		mockMvc.perform(post(BEER_API_URL_PATH).contentType(MediaType.APPLICATION_JSON)
-				.content(objectMapper.writeValueAsString(beerDTO))).andExpect(status().isBadRequest());
+				.content(objectMapper.writeValueAsString(beerDTO))).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("VALIDATION_FAILED")));
+	}
+
+	@Test
+	@DisplayName("POST beer named after a sub-path")
+	void whenPOSTIsCalledWithAReservedNameThenErrorIsReturned() throws Exception {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		beerDTO.setName("search");
+
+		// then
+		mockMvc.perform(post(BEER_API_URL_PATH).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(beerDTO))).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("VALIDATION_FAILED")));
 	}
 
 	@Test
@@ -119,11 +168,15 @@ public class BeerControllerTest {
 		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
 		// when
-		when(beerService.findByName(beerDTO.getName())).thenThrow(BeerNotFoundException.class);
+		when(beerService.findByName(beerDTO.getName())).thenThrow(new BeerNotFoundException(beerDTO.getName()));
 
 		// then
 		mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDTO.getName())
-				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound());
+				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound())
+				.andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(jsonPath("$.code", is("BEER_NOT_FOUND")))
+				.andExpect(jsonPath("$.status", is(404)))
+				.andExpect(jsonPath("$.detail", is("Beer with name " + beerDTO.getName() + " not found in the system.")));
 	}
 
 	@Test
@@ -145,6 +198,27 @@ public class BeerControllerTest {
 
 	}
 
+	@Test
+	@DisplayName("GET All beer as CBOR")
+	void whenGETListIsCalledAcceptingCborThenCborBodyIsReturned() throws Exception {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		List<BeerDTO> list = Collections.singletonList(beerDTO);
+
+		// when
+		when(beerService.listAll()).thenReturn(list);
+
+		// then
+		byte[] body = mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		BeerDTO[] decoded = new ObjectMapper(new CBORFactory()).readValue(body, BeerDTO[].class);
+		assertEquals(beerDTO, decoded[0]);
+	}
+
 	@Test
 	@DisplayName("GET Empty List beer")
 	void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() throws Exception {
@@ -157,6 +231,106 @@ public class BeerControllerTest {
 				.andExpect(status().isOk());
 	}
 
+	@Test
+	@DisplayName("GET beers filtered by type and brand")
+	void whenGETSearchIsCalledWithFiltersThenPageOfBeersIsReturned() throws Exception {
+
+		// given
+		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		BeerFilterDTO filter = BeerFilterDTO.builder().type(BeerType.LAGER).brand("Ambev").maxFillRatio(0.5).build();
+		PageRequest pageRequest = PageRequest.of(0, 5, Sort.by("quantity"));
+
+		// when
+		when(beerService.search(filter, pageRequest)).thenReturn(new PageImpl<>(Collections.singletonList(beerDTO), pageRequest, 1));
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/search")
+				.param("type", "LAGER").param("brand", "Ambev").param("maxFillRatio", "0.5")
+				.param("page", "0").param("size", "5").param("sort", "quantity"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].name", is(beerDTO.getName())))
+				.andExpect(jsonPath("$.totalElements", is(1)));
+	}
+
+	@Test
+	@DisplayName("GET beers sorted by an unknown property")
+	void whenGETSearchIsCalledWithUnknownSortPropertyThenBadRequestIsReturned() throws Exception {
+
+		// when
+		when(beerService.search(any(BeerFilterDTO.class), any(Pageable.class)))
+				.thenThrow(new PropertyReferenceException("bogus", ClassTypeInformation.from(Beer.class),
+						Collections.emptyList()));
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/search").param("sort", "bogus"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+				.andExpect(jsonPath("$.code", is("VALIDATION_FAILED")))
+				.andExpect(jsonPath("$.detail", is("unknown property bogus")));
+	}
+
+	@Test
+	@DisplayName("GET replenishment plan")
+	void whenGETReplenishmentIsCalledThenPlanIsReturned() throws Exception {
+
+		// given
+		ReplenishmentPlanDTO plan = ReplenishmentPlanDTO.builder()
+				.leadTimeDays(7)
+				.reorderQuantity(40)
+				.groups(Collections.singletonList(ReplenishmentGroupDTO.builder()
+						.brand("Ambev").type(BeerType.LAGER).reorderQuantity(40).items(Collections.emptyList()).build()))
+				.build();
+
+		// when
+		when(replenishmentPlanner.plan()).thenReturn(plan);
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/replenishment"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.reorderQuantity", is(40)))
+				.andExpect(jsonPath("$.groups[0].brand", is("Ambev")));
+	}
+
+	@Test
+	@DisplayName("GET beer stock history")
+	void whenGETHistoryIsCalledThenQuantityBucketsAreReturned() throws Exception {
+
+		// given
+		StockHistoryQueryDTO query = StockHistoryQueryDTO.builder()
+				.from(Instant.parse("2025-01-01T00:00:00Z"))
+				.to(Instant.parse("2025-01-02T00:00:00Z"))
+				.resolution("hour")
+				.build();
+		StockHistoryDTO history = StockHistoryDTO.builder()
+				.beerId(VALID_BEER_ID)
+				.resolution(HistoryResolution.HOUR)
+				.points(Collections.singletonList(StockHistoryPointDTO.builder().min(5).max(15).avg(10).last(15).samples(2).build()))
+				.build();
+
+		// when
+		when(stockHistoryStore.history(VALID_BEER_ID, query)).thenReturn(history);
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/history")
+				.param("from", "2025-01-01T00:00:00Z")
+				.param("to", "2025-01-02T00:00:00Z")
+				.param("resolution", "hour"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.resolution", is("HOUR")))
+				.andExpect(jsonPath("$.points[0].max", is(15)));
+	}
+
+	@Test
+	@DisplayName("GET beer stock history with unknown resolution")
+	void whenGETHistoryIsCalledWithUnknownResolutionThenBadRequestIsReturned() throws Exception {
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/history")
+				.param("resolution", "week"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("VALIDATION_FAILED")));
+	}
+
 	@Test
 	@DisplayName("DELETE beer by Id")
 	void whenDELETECalledWithValidIdTheNoContentStatusIdReturned() throws Exception {
@@ -165,13 +339,25 @@ public class BeerControllerTest {
 		BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
 		// when
-		doNothing().when(beerService).deleteById(beerDTO.getId());
+		when(beerService.deleteById(beerDTO.getId())).thenReturn(true);
 
 		// then
 		mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/" + beerDTO.getId())
 				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isNoContent());
 	}
 
+	@Test
+	@DisplayName("DELETE beer queued by the async durability mode")
+	void whenDELETEIsOnlyQueuedThenAcceptedStatusIsReturned() throws Exception {
+
+		// when
+		when(beerService.deleteById(VALID_BEER_ID)).thenReturn(false);
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH + "/" + VALID_BEER_ID))
+				.andExpect(status().isAccepted());
+	}
+
 	@Test
 	@DisplayName("DELETE beer with Invalid Id")
 	void whenDELETECalledWithInValidIdThenNotFoundStatusReturned() throws Exception {
@@ -184,6 +370,29 @@ public class BeerControllerTest {
 				.contentType(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound());
 	}
 
+	@Test
+	@DisplayName("DELETE beers by type")
+	void whenDELETECalledWithTypeThenDeletedCountIsReturned() throws Exception {
+
+		// when
+		when(beerService.deleteAll(BeerDeleteFilterDTO.builder().type(BeerType.LAGER).build())).thenReturn(3L);
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH).param("type", "LAGER"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted", is(3)));
+	}
+
+	@Test
+	@DisplayName("DELETE beers with more than one criterion")
+	void whenDELETECalledWithTypeAndBrandThenBadRequestIsReturned() throws Exception {
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.delete(BEER_API_URL_PATH).param("type", "LAGER").param("brand", "Ambev"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("VALIDATION_FAILED")));
+	}
+
 	
 	@DisplayName("PATCH Quantity")
 	@Test
@@ -206,4 +415,24 @@ public class BeerControllerTest {
 		.andExpect(jsonPath("$.brand", is(beerDTO.getBrand())))
 		.andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
 	}
-}
\ No newline at end of file
+
+	@DisplayName("PATCH Quantity over max capacity")
+	@Test
+	void whenPatchIsCalledToIncrementOverMaxThenBadRequestProblemIsReturned() throws Exception {
+
+		// given
+		QuantityDTO quantityDTO = QuantityDTO.builder().quantity(50).build();
+
+		// when
+		when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity()))
+				.thenThrow(new BeerStockExceededException(VALID_BEER_ID, quantityDTO.getQuantity()));
+
+		// then
+		mockMvc.perform(MockMvcRequestBuilders.patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(quantityDTO)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.code", is("BEER_STOCK_EXCEEDED")))
+				.andExpect(jsonPath("$.type", is("/problems/beer-stock-exceeded")));
+	}
+}
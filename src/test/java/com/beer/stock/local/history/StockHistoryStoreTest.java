@@ -0,0 +1,195 @@
+package com.beer.stock.local.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.beer.stock.local.dto.StockHistoryDTO;
+import com.beer.stock.local.dto.StockHistoryPointDTO;
+import com.beer.stock.local.dto.StockHistoryQueryDTO;
+import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.enums.BeerType;
+import com.beer.stock.local.repository.BeerRepository;
+
+@DataJpaTest
+@Import({ StockHistoryStore.class, StockHistoryListener.class })
+public class StockHistoryStoreTest {
+
+	private static final Long BEER_ID = 1L;
+	private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+	private static final long HOUR = Duration.ofHours(1).toMillis();
+	private static final long DAY = Duration.ofDays(1).toMillis();
+	private static final long START = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+	@Autowired
+	private StockHistoryStore stockHistoryStore;
+
+	@Autowired
+	private BeerRepository beerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void whenSamplesAreRecordedThenTheyAreRolledUpIntoMinuteBuckets() {
+
+		// given
+		stockHistoryStore.record(BEER_ID, START, 10);
+		stockHistoryStore.record(BEER_ID, START + 10_000, 30);
+		stockHistoryStore.record(BEER_ID, START + 20_000, 20);
+		stockHistoryStore.record(BEER_ID, START + MINUTE, 40);
+
+		// when
+		StockHistoryDTO history = stockHistoryStore.history(BEER_ID,
+				query(START, START + HOUR, "minute"), START + HOUR);
+
+		// then
+		assertThat(history.getPoints(), hasSize(2));
+		StockHistoryPointDTO firstMinute = history.getPoints().get(0);
+		assertThat(firstMinute.getTime(), is(Instant.ofEpochMilli(START)));
+		assertThat(firstMinute.getMin(), is(10));
+		assertThat(firstMinute.getMax(), is(30));
+		assertThat(firstMinute.getAvg(), is(closeTo(20.0, 0.001)));
+		assertThat(firstMinute.getLast(), is(20));
+		assertThat(firstMinute.getSamples(), is(3));
+	}
+
+	@Test
+	void whenAYearIsQueriedThenAutoResolutionServesDayBuckets() {
+
+		// given
+		for (int day = 0; day < 365; day++) {
+			stockHistoryStore.record(BEER_ID, START + day * DAY, day % 2 == 0 ? 10 : 20);
+		}
+		long now = START + 365 * DAY;
+
+		// when
+		StockHistoryDTO history = stockHistoryStore.history(BEER_ID, query(START, now, null), now);
+
+		// then
+		assertThat(history.getResolution(), is(HistoryResolution.DAY));
+		assertThat(history.getPoints(), hasSize(365));
+	}
+
+	@Test
+	void whenRetentionExpiresThenOldBucketsAreNoLongerServed() {
+
+		// given
+		stockHistoryStore.record(BEER_ID, START, 10);
+		stockHistoryStore.record(BEER_ID, START + HOUR, 20);
+		long now = START + 2 * DAY;
+
+		// when
+		StockHistoryDTO raw = stockHistoryStore.history(BEER_ID, query(START, now, "raw"), now);
+		StockHistoryDTO hours = stockHistoryStore.history(BEER_ID, query(START, now, "hour"), now);
+
+		// then
+		assertThat(raw.getPoints(), is(empty()));
+		assertThat(hours.getPoints(), hasSize(2));
+	}
+
+	@Test
+	void whenANewBucketOpensThenTheExpiredBucketsOfItsLevelAreDeleted() {
+
+		// given
+		stockHistoryStore.record(BEER_ID, START, 10);
+		long now = START + 2 * DAY;
+
+		// when
+		stockHistoryStore.record(BEER_ID, now, 5);
+
+		// then
+		assertThat(rollups("RAW"), is(1));
+		assertThat(rollups("DAY"), is(2));
+		StockHistoryDTO raw = stockHistoryStore.history(BEER_ID, query(now - HOUR, now + MINUTE, "raw"), now + MINUTE);
+		assertThat(raw.getPoints(), hasSize(1));
+		assertThat(raw.getPoints().get(0).getLast(), is(5));
+	}
+
+	@Test
+	void whenAnotherStoreReadsTheDatabaseThenItServesTheRecordedHistory() {
+
+		// given
+		stockHistoryStore.record(BEER_ID, START, 10);
+		stockHistoryStore.record(BEER_ID, START + MINUTE, 4);
+
+		// when
+		StockHistoryStore restartedStore = new StockHistoryStore(jdbcTemplate, Duration.ofDays(1), Duration.ofDays(7),
+				Duration.ofDays(90), Duration.ofDays(730));
+		StockHistoryDTO history = restartedStore.history(BEER_ID, query(START, START + HOUR, "minute"), START + HOUR);
+
+		// then
+		assertThat(history.getPoints(), hasSize(2));
+		assertThat(history.getPoints().get(1).getLast(), is(4));
+	}
+
+	@Test
+	void whenStockDecreasesThenTheConsumptionIsTakenFromTheLastRecordedQuantity() {
+
+		// given
+		Beer beer = beerRepository.saveAndFlush(new Beer(null, "Brahma", "Ambev", 100, 50, BeerType.LAGER, 0));
+
+		// when
+		beer.setQuantity(40);
+		beerRepository.saveAndFlush(beer);
+		beer.setQuantity(45);
+		beerRepository.saveAndFlush(beer);
+		beer.setQuantity(30);
+		beerRepository.saveAndFlush(beer);
+
+		// then consumed 10 + 15 over less than a day of history, averaged over one day
+		assertThat(stockHistoryStore.dailyConsumptions(Duration.ofDays(7)).get(beer.getId()), is(closeTo(25.0, 0.001)));
+	}
+
+	@Test
+	void whenBeersAreForgottenThenTheirHistoryIsDeleted() {
+
+		// given
+		stockHistoryStore.record(BEER_ID, START, 10);
+		stockHistoryStore.record(2L, START, 10);
+
+		// when
+		stockHistoryStore.forget(Arrays.asList(BEER_ID, 3L));
+
+		// then
+		assertThat(stockHistoryStore.history(BEER_ID, query(START, START + HOUR, "minute"), START + HOUR).getPoints(),
+				is(empty()));
+		assertThat(stockHistoryStore.history(2L, query(START, START + HOUR, "minute"), START + HOUR).getPoints(),
+				hasSize(1));
+	}
+
+	@Test
+	void whenBeerHasNoHistoryThenNoPointsAreReturned() {
+
+		// when
+		StockHistoryDTO history = stockHistoryStore.history(BEER_ID, query(START, START + DAY, "hour"), START + DAY);
+
+		// then
+		assertThat(history.getPoints(), is(empty()));
+	}
+
+	private int rollups(String resolution) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_rollup WHERE beer_id = ? AND resolution = ?",
+				Integer.class, BEER_ID, resolution);
+	}
+
+	private static StockHistoryQueryDTO query(long from, long to, String resolution) {
+		return StockHistoryQueryDTO.builder()
+				.from(Instant.ofEpochMilli(from))
+				.to(Instant.ofEpochMilli(to))
+				.resolution(resolution)
+				.build();
+	}
+}
@@ -0,0 +1,96 @@
+package com.beer.stock.local.repository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.beer.stock.local.dto.BeerFilterDTO;
+import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.enums.BeerType;
+import com.beer.stock.local.history.StockHistoryListener;
+import com.beer.stock.local.history.StockHistoryStore;
+
+@DataJpaTest
+@Import({ StockHistoryStore.class, StockHistoryListener.class })
+public class BeerSpecificationsTest {
+
+	@Autowired
+	private BeerRepository beerRepository;
+
+	@BeforeEach
+	void setup() {
+		beerRepository.save(beer("Brahma", "Ambev", BeerType.LAGER, 10, 100));
+		beerRepository.save(beer("Skol", "Ambev", BeerType.LAGER, 80, 100));
+		beerRepository.save(beer("Colorado Indica", "Colorado", BeerType.IPA, 5, 25));
+		beerRepository.save(beer("Guinness", "Diageo", BeerType.STOUT, 60, 200));
+	}
+
+	@Test
+	void whenTypeAndBrandAreGivenThenOnlyMatchingBeersAreReturned() {
+
+		// when
+		List<Beer> found = beerRepository.findAll(BeerSpecifications.matching(
+				BeerFilterDTO.builder().type(BeerType.LAGER).brand("Ambev").build()));
+
+		// then
+		assertThat(names(found), containsInAnyOrder("Brahma", "Skol"));
+	}
+
+	@Test
+	void whenMinQuantityIsGivenThenBeersBelowItAreExcluded() {
+
+		// when
+		List<Beer> found = beerRepository.findAll(BeerSpecifications.matching(
+				BeerFilterDTO.builder().minQuantity(60).build()));
+
+		// then
+		assertThat(names(found), containsInAnyOrder("Skol", "Guinness"));
+	}
+
+	@Test
+	void whenMaxFillRatioIsGivenThenOnlyLowStockBeersAreReturned() {
+
+		// when
+		List<Beer> found = beerRepository.findAll(BeerSpecifications.matching(
+				BeerFilterDTO.builder().maxFillRatio(0.3).build()));
+
+		// then
+		assertThat(names(found), containsInAnyOrder("Brahma", "Colorado Indica", "Guinness"));
+	}
+
+	@Test
+	void whenSortedByFillRatioThenPagesFollowTheStoredRatio() {
+
+		// when
+		Page<Beer> firstPage = beerRepository.findAll(BeerSpecifications.matching(new BeerFilterDTO()),
+				PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "fillRatio")));
+		Page<Beer> secondPage = beerRepository.findAll(BeerSpecifications.matching(new BeerFilterDTO()),
+				PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "fillRatio")));
+
+		// then
+		assertThat(firstPage.getTotalElements(), is(4L));
+		assertThat(names(firstPage.getContent()), contains("Brahma", "Colorado Indica"));
+		assertThat(names(secondPage.getContent()), contains("Guinness", "Skol"));
+	}
+
+	private static Beer beer(String name, String brand, BeerType type, int quantity, int max) {
+		return new Beer(null, name, brand, max, quantity, type, 0);
+	}
+
+	private static List<String> names(List<Beer> beers) {
+		return beers.stream().map(Beer::getName).collect(Collectors.toList());
+	}
+}
@@ -8,16 +8,26 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,15 +36,38 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.internal.matchers.LessThan;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.beer.stock.local.builder.BeerDTOBuilder;
+import com.beer.stock.local.cache.BeerCache;
+import com.beer.stock.local.cache.CatalogueSnapshot;
+import com.beer.stock.local.cache.LocalBeerInvalidationBus;
+import com.beer.stock.local.cache.Revisioned;
+import com.beer.stock.local.concurrent.SingleFlight;
 import com.beer.stock.local.dto.BeerDTO;
+import com.beer.stock.local.dto.BeerDeleteFilterDTO;
+import com.beer.stock.local.dto.BeerFilterDTO;
 import com.beer.stock.local.entity.Beer;
+import com.beer.stock.local.enums.BeerType;
 import com.beer.stock.local.exception.BeerAlreadyRegisteredException;
 import com.beer.stock.local.exception.BeerNotFoundException;
 import com.beer.stock.local.exception.BeerStockExceededException;
+import com.beer.stock.local.history.StockHistoryStore;
 import com.beer.stock.local.mapper.BeerMapper;
+import com.beer.stock.local.replica.ReplicaRoutingContext;
 import com.beer.stock.local.repository.BeerRepository;
+import com.beer.stock.local.write.WriteCoordinator;
+import com.beer.stock.local.write.WriteProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 
 
@@ -48,12 +81,28 @@ public class BeerServiceTest {
 
 	private BeerMapper beerMapper = BeerMapper.INSTANCE;
 
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private LocalBeerInvalidationBus invalidationBus;
+
+	private SingleFlight<String, Revisioned<Optional<Beer>>> findByNameSingleFlight;
+
+	@Mock
+	private StockHistoryStore stockHistoryStore;
+
 	@InjectMocks
 	private BeerService beerService;
 
 	@BeforeEach
 	void setup() {
-		beerService = new BeerService(beerRepository, beerMapper);
+		invalidationBus = new LocalBeerInvalidationBus();
+		findByNameSingleFlight = new SingleFlight<>();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		beerService = new BeerService(beerRepository, beerMapper, new BeerCache(invalidationBus, 100), invalidationBus,
+				findByNameSingleFlight, new CatalogueSnapshot(beerRepository, beerMapper, new ObjectMapper(), invalidationBus),
+				transactionTemplate, new WriteCoordinator(transactionTemplate, new WriteProperties(),
+						new SimpleMeterRegistry()), stockHistoryStore);
 	}
 
 	@Test
@@ -112,6 +161,121 @@ public class BeerServiceTest {
 		assertThat(foundedBeerDTO, is(equalTo(expectedFoundBeerDTO)));			
 	}
 	
+	@Test
+	void whenBeerNameIsLookedUpTwiceThenRepositoryIsQueriedOnce() throws BeerNotFoundException {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+		//when
+		when(beerRepository.findByName(expectedFoundBeer.getName())).thenReturn(Optional.of(expectedFoundBeer));
+
+		//then
+		beerService.findByName(expectedFoundBeerDTO.getName());
+		BeerDTO foundedBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
+
+		assertThat(foundedBeerDTO, is(equalTo(expectedFoundBeerDTO)));
+		verify(beerRepository, times(1)).findByName(expectedFoundBeerDTO.getName());
+	}
+
+	@Test
+	void whenCachedBeerIsInvalidatedThenNextLookupHitsRepository() throws BeerNotFoundException {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+		//when
+		when(beerRepository.findByName(expectedFoundBeer.getName())).thenReturn(Optional.of(expectedFoundBeer));
+
+		//then
+		beerService.findByName(expectedFoundBeerDTO.getName());
+		invalidationBus.publish(expectedFoundBeerDTO.getId());
+		beerService.findByName(expectedFoundBeerDTO.getName());
+
+		verify(beerRepository, times(2)).findByName(expectedFoundBeerDTO.getName());
+	}
+
+	@Test
+	void whenLookupIsJoinedAfterAnInvalidationThenTheStaleResultIsNotCached() throws Exception {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+		CountDownLatch queried = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		//when
+		when(beerRepository.findByName(expectedFoundBeer.getName())).thenAnswer(invocation -> {
+			queried.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return Optional.of(expectedFoundBeer);
+		});
+		Future<BeerDTO> leader = executor.submit(() -> beerService.findByName(expectedFoundBeerDTO.getName()));
+		queried.await(5, TimeUnit.SECONDS);
+		invalidationBus.publish(expectedFoundBeerDTO.getId());
+		Future<BeerDTO> follower = executor.submit(() -> beerService.findByName(expectedFoundBeerDTO.getName()));
+		awaitCollapsedCallers(1);
+		release.countDown();
+
+		//then
+		assertThat(leader.get(5, TimeUnit.SECONDS), is(equalTo(expectedFoundBeerDTO)));
+		assertThat(follower.get(5, TimeUnit.SECONDS), is(equalTo(expectedFoundBeerDTO)));
+		executor.shutdown();
+		beerService.findByName(expectedFoundBeerDTO.getName());
+		verify(beerRepository, times(2)).findByName(expectedFoundBeerDTO.getName());
+	}
+
+	@Test
+	void whenReadsArePinnedToThePrimaryThenAStaleCachedBeerIsBypassed() throws BeerNotFoundException {
+
+		//given a lookup cached before another instance changed the beer
+		BeerDTO staleBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer changedBeer = beerMapper.toModel(BeerDTOBuilder.builder().quantity(30).build().toBeerDTO());
+		when(beerRepository.findByName(staleBeerDTO.getName()))
+				.thenReturn(Optional.of(beerMapper.toModel(staleBeerDTO)), Optional.of(changedBeer));
+		beerService.findByName(staleBeerDTO.getName());
+
+		//when
+		BeerDTO foundBeerDTO;
+		ReplicaRoutingContext.pinPrimary();
+		try {
+			foundBeerDTO = beerService.findByName(staleBeerDTO.getName());
+		} finally {
+			ReplicaRoutingContext.clear();
+		}
+
+		//then
+		assertThat(foundBeerDTO.getQuantity(), is(30));
+		assertThat(findByNameSingleFlight.getExecutedCount(), is(1L));
+	}
+
+	@Test
+	void whenReadsArePinnedToThePrimaryThenTheCatalogueSnapshotIsBypassed() {
+
+		//given a snapshot taken before another instance changed the beer
+		Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+		when(beerRepository.findAll()).thenReturn(Collections.singletonList(beer));
+		beerService.listAll();
+		Beer changedBeer = beerMapper.toModel(BeerDTOBuilder.builder().quantity(30).build().toBeerDTO());
+		when(beerRepository.findAll(any(Sort.class))).thenReturn(Collections.singletonList(changedBeer));
+
+		//when
+		List<BeerDTO> foundedListBeerDTO;
+		ReplicaRoutingContext.pinPrimary();
+		try {
+			foundedListBeerDTO = beerService.listAll();
+		} finally {
+			ReplicaRoutingContext.clear();
+		}
+
+		//then
+		assertThat(foundedListBeerDTO.get(0).getQuantity(), is(30));
+		assertThat(beerService.listAll().get(0).getQuantity(), is(beer.getQuantity()));
+	}
+
 	@Test
 	void whenNotRegisteredBeerNameIsGivenThenThrowAnException() throws BeerNotFoundException {
 		
@@ -145,6 +309,33 @@ public class BeerServiceTest {
 		
 	}
 	
+	@Test
+	void whenListBeerIsCalledRepeatedlyThenOnlyChangedBeersAreReloaded() {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+		Beer otherBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+
+		//when
+		when(beerRepository.findAll()).thenReturn(Arrays.asList(expectedFoundBeer, otherBeer));
+		beerService.listAll();
+		BeerDTO unchangedBeerDTO = beerService.listAll().get(1);
+
+		expectedFoundBeer.setQuantity(30);
+		when(beerRepository.findAllById(any())).thenReturn(Arrays.asList(expectedFoundBeer));
+		invalidationBus.publish(expectedFoundBeer.getId());
+
+		//then
+		List<BeerDTO> foundedListBeerDTO = beerService.listAll();
+
+		assertThat(foundedListBeerDTO.get(0).getQuantity(), is(30));
+		assertThat(foundedListBeerDTO.get(1).getName(), is("Skol"));
+		assertThat(foundedListBeerDTO.get(1), is(sameInstance(unchangedBeerDTO)));
+		verify(beerRepository, times(1)).findAll();
+		verify(beerRepository, times(1)).findAllById(any());
+	}
+
 	@Test
 	void whenListBeerIsCalledThenReturnAnEmptyList() {
 		
@@ -159,32 +350,94 @@ public class BeerServiceTest {
 		
 	}
 	
+	@SuppressWarnings("unchecked")
+	@Test
+	void whenSearchIsCalledThenReturnAPageOfMatchingBeers() {
+
+		//given
+		BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+		Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+		BeerFilterDTO filter = BeerFilterDTO.builder().type(BeerType.LAGER).minQuantity(5).build();
+		Pageable pageable = PageRequest.of(0, 10);
+
+		//when
+		when(beerRepository.findAll(any(Specification.class), any(Pageable.class)))
+				.thenReturn(new PageImpl<>(Collections.singletonList(expectedFoundBeer), pageable, 1));
+
+		//then
+		Page<BeerDTO> foundPage = beerService.search(filter, pageable);
+
+		assertThat(foundPage.getTotalElements(), is(1L));
+		assertThat(foundPage.getContent().get(0), is(equalTo(expectedFoundBeerDTO)));
+	}
+
 	@Test
 	void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException {
 		BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-		Beer expectedDeletedBeer = beerMapper.toModel(expectedDeletedBeerDTO);
 		
 		// when
-		when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Optional.of(expectedDeletedBeer));
-		doNothing().when(beerRepository).deleteById(expectedDeletedBeerDTO.getId());
+		when(beerRepository.removeById(expectedDeletedBeerDTO.getId())).thenReturn(1);
 
 		//then
 		beerService.deleteById(expectedDeletedBeerDTO.getId());
 		
-		verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
-		verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+		verify(beerRepository, times(1)).removeById(expectedDeletedBeerDTO.getId());
+		verify(beerRepository, never()).findById(expectedDeletedBeerDTO.getId());
+		verify(stockHistoryStore, times(1)).forget(Collections.singletonList(expectedDeletedBeerDTO.getId()));
+		assertThat(invalidationBus.getRevision(), is(1L));
 	}
 	
 	@Test
 	void whenExclusionIsCalledWithInValidIdThenThrowsBeerNotFoundException() throws BeerNotFoundException {
 		
 		// when
-		when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+		when(beerRepository.removeById(INVALID_BEER_ID)).thenReturn(0);
 
 		//then		
 		assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(INVALID_BEER_ID));
 	}
 	
+	@Test
+	void whenBulkExclusionIsCalledWithIdsThenTheyAreDeletedInChunks() {
+		
+		//given
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= 1200; id++) {
+			ids.add(id);
+		}
+		BeerDeleteFilterDTO filter = BeerDeleteFilterDTO.builder().ids(ids).build();
+		
+		// when
+		when(beerRepository.removeByIdIn(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+		
+		//then
+		long deleted = beerService.deleteAll(filter);
+		
+		assertThat(deleted, is(1200L));
+		verify(beerRepository, times(3)).removeByIdIn(any());
+		verify(transactionManager, times(3)).commit(any());
+		assertThat(invalidationBus.getRevision(), is(1200L));
+	}
+	
+	@Test
+	void whenBulkExclusionIsCalledWithTypeThenMatchingIdsAreDeleted() {
+		
+		//given
+		BeerDeleteFilterDTO filter = BeerDeleteFilterDTO.builder().type(BeerType.LAGER).build();
+		List<Long> matchingIds = Arrays.asList(3L, 7L);
+		
+		// when
+		when(beerRepository.findIdsByTypeAfter(eq(BeerType.LAGER), eq(0L), any())).thenReturn(matchingIds);
+		when(beerRepository.removeByIdIn(matchingIds)).thenReturn(2);
+		
+		//then
+		long deleted = beerService.deleteAll(filter);
+		
+		assertThat(deleted, is(2L));
+		verify(beerRepository, times(1)).findIdsByTypeAfter(eq(BeerType.LAGER), eq(0L), any());
+		verify(stockHistoryStore, times(1)).forget(matchingIds);
+	}
+	
 	@Test
 	void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
 		
@@ -222,5 +475,11 @@ public class BeerServiceTest {
 		
 		
 	}
-}
 
+	private void awaitCollapsedCallers(int expected) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (findByNameSingleFlight.getCollapsedCount() < expected && System.nanoTime() < deadline) {
+			Thread.yield();
+		}
+	}
+}
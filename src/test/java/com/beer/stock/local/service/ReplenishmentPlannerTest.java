@@ -0,0 +1,178 @@
+package com.beer.stock.local.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.beer.stock.local.cache.LocalBeerInvalidationBus;
+import com.beer.stock.local.dto.ReplenishmentGroupDTO;
+import com.beer.stock.local.dto.ReplenishmentPlanDTO;
+import com.beer.stock.local.enums.BeerType;
+import com.beer.stock.local.repository.BeerRepository;
+import com.beer.stock.local.repository.BeerStockLevel;
+import com.beer.stock.local.tenancy.TenantContext;
+import com.beer.stock.local.tenancy.TenantPoolEvictedEvent;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplenishmentPlannerTest {
+
+	private static final int CHUNK_SIZE = 2;
+	private static final int LEAD_TIME_DAYS = 7;
+
+	@Mock
+	private BeerRepository beerRepository;
+
+	private LocalBeerInvalidationBus invalidationBus;
+
+	private ReplenishmentPlanner replenishmentPlanner;
+
+	@BeforeEach
+	void setup() {
+		invalidationBus = new LocalBeerInvalidationBus();
+		ConsumptionRateProvider consumptionRateProvider = beerId -> beerId == 3L ? 2.0 : 0.0;
+		replenishmentPlanner = new ReplenishmentPlanner(beerRepository, consumptionRateProvider, invalidationBus,
+				LEAD_TIME_DAYS, 0.5, CHUNK_SIZE, Duration.ofMinutes(1));
+
+		// lenient: tests planning other catalogues replace these stubs
+		lenient().when(beerRepository.findStockLevelsAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(
+				new BeerStockLevel(1L, "Brahma", "Ambev", BeerType.LAGER, 10, 50),
+				new BeerStockLevel(2L, "Skol", "Ambev", BeerType.LAGER, 45, 50)));
+		lenient().when(beerRepository.findStockLevelsAfter(eq(2L), any(Pageable.class))).thenReturn(Arrays.asList(
+				new BeerStockLevel(3L, "Colorado Appia", "Colorado", BeerType.ALE, 30, 40),
+				new BeerStockLevel(4L, "Brahma Duplo Malte", "Ambev", BeerType.LAGER, 5, 50)));
+		lenient().when(beerRepository.findStockLevelsAfter(eq(4L), any(Pageable.class))).thenReturn(Collections.emptyList());
+	}
+
+	@Test
+	void whenPlanIsComputedThenLowStockBeersAreGroupedByBrandAndType() {
+
+		//when
+		ReplenishmentPlanDTO plan = replenishmentPlanner.plan();
+
+		//then
+		assertThat(plan.getBeersScanned(), is(4L));
+		assertThat(plan.getGroups(), hasSize(2));
+
+		ReplenishmentGroupDTO ambevLagers = plan.getGroups().get(0);
+		assertThat(ambevLagers.getBrand(), is("Ambev"));
+		assertThat(ambevLagers.getType(), is(BeerType.LAGER));
+		assertThat(ambevLagers.getItems().stream().map(item -> item.getId()).collect(Collectors.toList()), contains(1L, 4L));
+		assertThat(ambevLagers.getReorderQuantity(), is(40L + 45L));
+
+		// 30 in stock, 2 a day over 7 days leaves 16 of 40, under the 50% reorder point
+		ReplenishmentGroupDTO coloradoAles = plan.getGroups().get(1);
+		assertThat(coloradoAles.getItems().get(0).getReorderQuantity(), is(24));
+		assertThat(plan.getReorderQuantity(), is(40L + 45L + 24L));
+	}
+
+	@Test
+	void whenCatalogueIsUnchangedThenCachedPlanIsReturned() {
+
+		//when
+		ReplenishmentPlanDTO firstPlan = replenishmentPlanner.plan();
+		ReplenishmentPlanDTO secondPlan = replenishmentPlanner.plan();
+
+		//then
+		assertThat(secondPlan == firstPlan, is(true));
+		verify(beerRepository, times(1)).findStockLevelsAfter(eq(0L), any(Pageable.class));
+	}
+
+	@Test
+	void whenCatalogueChangesThenPlanIsRecomputed() {
+
+		//when
+		replenishmentPlanner.plan();
+		invalidationBus.publish(1L);
+		ReplenishmentPlanDTO recomputedPlan = replenishmentPlanner.plan();
+
+		//then
+		assertThat(recomputedPlan.getCatalogueRevision(), is(1L));
+		verify(beerRepository, times(2)).findStockLevelsAfter(eq(0L), any(Pageable.class));
+	}
+
+	@Test
+	void whenATenantsPoolIsEvictedThenOnlyThatTenantsPlanIsDropped() {
+
+		//given
+		TenantContext.setTenant("evicted");
+		ReplenishmentPlanDTO evictedTenantPlan;
+		try {
+			evictedTenantPlan = replenishmentPlanner.plan();
+		} finally {
+			TenantContext.clear();
+		}
+		ReplenishmentPlanDTO defaultTenantPlan = replenishmentPlanner.plan();
+
+		//when
+		replenishmentPlanner.onTenantPoolEvicted(new TenantPoolEvictedEvent("evicted"));
+
+		//then
+		assertThat(replenishmentPlanner.plan() == defaultTenantPlan, is(true));
+		TenantContext.setTenant("evicted");
+		try {
+			assertThat(replenishmentPlanner.plan() == evictedTenantPlan, is(false));
+		} finally {
+			TenantContext.clear();
+		}
+	}
+
+	@Test
+	void whenOneTenantsPlanIsSlowThenOtherTenantsAreNotBlocked() throws Exception {
+
+		//given
+		CountDownLatch slowScanStarted = new CountDownLatch(1);
+		CountDownLatch releaseSlowScan = new CountDownLatch(1);
+		when(beerRepository.findStockLevelsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+			if ("slow".equals(TenantContext.getTenant())) {
+				slowScanStarted.countDown();
+				releaseSlowScan.await(5, TimeUnit.SECONDS);
+			}
+			return Collections.emptyList();
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		//when
+		Future<ReplenishmentPlanDTO> slowPlan = executor.submit(() -> planFor("slow"));
+		slowScanStarted.await(5, TimeUnit.SECONDS);
+		Future<ReplenishmentPlanDTO> fastPlan = executor.submit(() -> planFor("fast"));
+
+		//then
+		assertThat(fastPlan.get(2, TimeUnit.SECONDS).getBeersScanned(), is(0L));
+		releaseSlowScan.countDown();
+		assertThat(slowPlan.get(5, TimeUnit.SECONDS).getBeersScanned(), is(0L));
+		executor.shutdown();
+	}
+
+	private ReplenishmentPlanDTO planFor(String tenant) {
+		TenantContext.setTenant(tenant);
+		try {
+			return replenishmentPlanner.plan();
+		} finally {
+			TenantContext.clear();
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package com.beer.stock.local.write;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.beer.stock.local.exception.BeerNotFoundException;
+import com.beer.stock.local.exception.WriteUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class WriteCoordinatorTest {
+
+	private static final int WRITERS = 16;
+
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private WriteCoordinator writeCoordinator;
+
+	@AfterEach
+	void shutdown() throws InterruptedException {
+		writeCoordinator.shutdown();
+	}
+
+	@Test
+	void whenWritesArriveTogetherThenTheyShareOneGroupCommit() throws Exception {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(50));
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		// when
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < WRITERS; i++) {
+			int value = i;
+			results.add(executor.submit(() -> {
+				start.await();
+				return writeCoordinator.execute(() -> value);
+			}));
+		}
+		start.countDown();
+
+		// then
+		for (int i = 0; i < WRITERS; i++) {
+			assertThat(results.get(i).get(5, TimeUnit.SECONDS), is(i));
+		}
+		executor.shutdown();
+		assertThat(meterRegistry.get("beerstock.write.group.size").summary().count(), is(lessThan((long) WRITERS)));
+		assertThat(meterRegistry.get("beerstock.write.mutations").tag("outcome", "committed").counter().count(),
+				is((double) WRITERS));
+	}
+
+	@Test
+	void whenAMutationIsRejectedThenItsCallerGetsTheDomainException() {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(1));
+
+		// then
+		assertThrows(BeerNotFoundException.class, () -> writeCoordinator.execute(() -> {
+			throw new BeerNotFoundException(1L);
+		}));
+		assertThat(meterRegistry.get("beerstock.write.mutations").tag("outcome", "rejected").counter().count(), is(1.0));
+	}
+
+	@Test
+	void whenGroupFailsThenOnlyTheFailingMutationFails() throws Exception {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(50));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch start = new CountDownLatch(1);
+
+		// when
+		Future<String> healthy = executor.submit(() -> {
+			start.await();
+			return writeCoordinator.execute(() -> "ok");
+		});
+		Future<String> failing = executor.submit(() -> {
+			start.await();
+			return writeCoordinator.execute(() -> {
+				throw new IllegalStateException("constraint violated");
+			});
+		});
+		start.countDown();
+
+		// then
+		assertThat(healthy.get(5, TimeUnit.SECONDS), is("ok"));
+		Exception failure = assertThrows(Exception.class, () -> failing.get(5, TimeUnit.SECONDS));
+		assertThat(failure.getCause().getMessage(), is("constraint violated"));
+		executor.shutdown();
+	}
+
+	@Test
+	void whenModeIsAsyncThenWriteIsAcknowledgedBeforeItCommits() throws Exception {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.ASYNC, Duration.ofMillis(1));
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger applied = new AtomicInteger();
+
+		// when
+		Integer result = writeCoordinator.execute(() -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return applied.incrementAndGet();
+		});
+
+		// then
+		assertThat(result, is(nullValue()));
+		assertThat(applied.get(), is(0));
+		release.countDown();
+		verify(transactionManager, timeout(5000)).commit(any());
+		writeCoordinator.shutdown();
+		assertThat(applied.get(), is(1));
+	}
+
+	@Test
+	void whenModeIsSyncThenEachWriteCommitsItsOwnTransaction() {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.SYNC, Duration.ofMillis(1));
+
+		// when
+		writeCoordinator.execute(() -> 1);
+		writeCoordinator.execute(() -> 2);
+
+		// then
+		verify(transactionManager, atLeast(2)).commit(any());
+		assertThat(meterRegistry.get("beerstock.write.commit").tag("mode", "sync").timer().count(), is(2L));
+	}
+
+	@Test
+	void whenTheQueueIsFullThenTheWriteIsRejectedWithoutBlocking() throws Exception {
+
+		// given
+		WriteProperties properties = properties(DurabilityMode.ASYNC, Duration.ofMillis(1));
+		properties.setQueueCapacity(1);
+		properties.setEnqueueTimeout(Duration.ofMillis(20));
+		writeCoordinator = coordinator(properties);
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		writeCoordinator.execute(() -> {
+			committing.countDown();
+			awaitQuietly(release);
+			return 1;
+		});
+		committing.await(5, TimeUnit.SECONDS);
+		writeCoordinator.execute(() -> 2);
+
+		// when
+		long start = System.nanoTime();
+		assertThrows(WriteUnavailableException.class, () -> writeCoordinator.execute(() -> 3));
+
+		// then
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), is(lessThan(5L)));
+		release.countDown();
+	}
+
+	@Test
+	void whenAGroupCommitIsNotConfirmedInTimeThenTheCallerStopsWaiting() {
+
+		// given
+		WriteProperties properties = properties(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(1));
+		properties.setCommitTimeout(Duration.ofMillis(50));
+		writeCoordinator = coordinator(properties);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// then
+		assertThrows(WriteUnavailableException.class, () -> writeCoordinator.execute(() -> {
+			awaitQuietly(release);
+			return 1;
+		}));
+		release.countDown();
+	}
+
+	@Test
+	void whenAMutationThrowsAnErrorThenItsCallerFailsAndTheCommitterKeepsRunning() {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(1));
+
+		// when
+		assertThrows(AssertionError.class, () -> writeCoordinator.execute(() -> {
+			throw new AssertionError("broken mutation");
+		}));
+
+		// then
+		assertThat(writeCoordinator.execute(() -> "ok"), is("ok"));
+	}
+
+	@Test
+	void whenShutDownThenQueuedWritesCompleteAndNewWritesAreRejected() throws Exception {
+
+		// given
+		writeCoordinator = coordinator(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(1));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<Integer> inFlight = executor.submit(() -> writeCoordinator.execute(() -> {
+			committing.countDown();
+			awaitQuietly(release);
+			return 1;
+		}));
+		committing.await(5, TimeUnit.SECONDS);
+
+		// when
+		Thread shutdown = new Thread(() -> {
+			try {
+				writeCoordinator.shutdown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		shutdown.start();
+		release.countDown();
+		shutdown.join(TimeUnit.SECONDS.toMillis(5));
+
+		// then
+		assertThat(inFlight.get(5, TimeUnit.SECONDS), is(1));
+		assertThrows(WriteUnavailableException.class, () -> writeCoordinator.execute(() -> 2));
+		executor.shutdown();
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private WriteCoordinator coordinator(DurabilityMode durabilityMode, Duration groupCommitInterval) {
+		return coordinator(properties(durabilityMode, groupCommitInterval));
+	}
+
+	private WriteCoordinator coordinator(WriteProperties properties) {
+		return new WriteCoordinator(new TransactionTemplate(transactionManager), properties, meterRegistry);
+	}
+
+	private static WriteProperties properties(DurabilityMode durabilityMode, Duration groupCommitInterval) {
+		WriteProperties properties = new WriteProperties();
+		properties.setDurability(durabilityMode);
+		properties.setGroupCommitInterval(groupCommitInterval);
+		properties.setQueueCapacity(100);
+		return properties;
+	}
+}